@@ -0,0 +1,215 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// HTTP load against the app, e.g. started with spring.threads.virtual.enabled=false and then =true.
+//
+// By default it is closed-loop: N clients each send a request, wait for the answer and repeat.
+// That measures throughput, but its percentiles hide stalls, since a slow answer also holds
+// back the requests that client would have sent meanwhile (coordinated omission). With
+// --rate the load is open-loop instead: requests go out on a fixed schedule whether or not
+// earlier ones have been answered, and each latency is measured from the request's intended
+// send time, so a stall shows up in every request it delays.
+//
+//   java benchmarks/load/LoadGenerator.java --url http://localhost:8080 \
+//        --paths /api/content/1,/api/content/available --concurrency 500 --duration 30
+//   java benchmarks/load/LoadGenerator.java --paths /api/content/1 --rate 2000 --duration 30
+public class LoadGenerator {
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = option(args, "--url", "http://localhost:8080");
+        String[] paths = option(args, "--paths", "/api/content/1").split(",");
+        int concurrency = Integer.parseInt(option(args, "--concurrency", "200"));
+        long durationSeconds = Long.parseLong(option(args, "--duration", "30"));
+        long warmupSeconds = Long.parseLong(option(args, "--warmup", "5"));
+        int rate = Integer.parseInt(option(args, "--rate", "0"));
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        List<HttpRequest> requests = new ArrayList<>();
+        for (String path : paths) {
+            requests.add(HttpRequest.newBuilder(URI.create(baseUrl + path.trim()))
+                    .timeout(Duration.ofSeconds(30))
+                    .GET()
+                    .build());
+        }
+
+        if (rate > 0) {
+            System.out.printf("%d req/s open-loop, %d s warm-up + %d s measured, %s%n",
+                    rate, warmupSeconds, durationSeconds, Arrays.toString(paths));
+            openLoop(client, requests, rate, warmupSeconds, durationSeconds);
+        } else {
+            System.out.printf("%d clients, %d s warm-up + %d s measured, %s%n",
+                    concurrency, warmupSeconds, durationSeconds, Arrays.toString(paths));
+            closedLoop(client, requests, concurrency, warmupSeconds, durationSeconds);
+        }
+    }
+
+    private static void closedLoop(HttpClient client, List<HttpRequest> requests, int concurrency,
+                                   long warmupSeconds, long durationSeconds) throws InterruptedException {
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long stopAt = measureFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+
+        AtomicLong errors = new AtomicLong();
+        LatencyLog[] logs = new LatencyLog[concurrency];
+        CountDownLatch done = new CountDownLatch(concurrency);
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+
+        for (int c = 0; c < concurrency; c++) {
+            LatencyLog log = new LatencyLog();
+            logs[c] = log;
+            int offset = c;
+            clients.execute(() -> {
+                try {
+                    for (long i = offset; System.nanoTime() < stopAt; i++) {
+                        HttpRequest request = requests.get((int) (i % requests.size()));
+                        long sent = System.nanoTime();
+                        boolean ok;
+                        try {
+                            int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                            ok = status < 500;
+                        } catch (Exception e) {
+                            ok = false;
+                        }
+                        long received = System.nanoTime();
+
+                        if (sent < measureFrom || received > stopAt) {
+                            continue;
+                        }
+                        if (ok) {
+                            log.add(received - sent);
+                        } else {
+                            errors.incrementAndGet();
+                        }
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        done.await();
+        clients.shutdown();
+
+        int total = 0;
+        for (LatencyLog log : logs) {
+            total += log.size;
+        }
+        long[] all = new long[total];
+        int position = 0;
+        for (LatencyLog log : logs) {
+            System.arraycopy(log.nanos, 0, all, position, log.size);
+            position += log.size;
+        }
+        report(all, errors.get(), durationSeconds);
+    }
+
+    // Request i is due at start + i / rate. One thread fires them with sendAsync, so a slow
+    // answer never delays the next send; if the thread itself falls behind, the late requests
+    // still count from when they were due.
+    private static void openLoop(HttpClient client, List<HttpRequest> requests, int rate,
+                                 long warmupSeconds, long durationSeconds) throws InterruptedException {
+        int warmupCount = (int) (rate * warmupSeconds);
+        int count = (int) (rate * (warmupSeconds + durationSeconds));
+        double intervalNanos = 1_000_000_000.0 / rate;
+
+        // One slot per request, written once by its completion: no locking, and the
+        // latch makes every slot visible before the report reads them
+        long[] latencies = new long[count];
+        AtomicLong errors = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(count);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            long due = start + (long) (i * intervalNanos);
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            int slot = i;
+            boolean counted = i >= warmupCount;
+            client.sendAsync(requests.get(i % requests.size()), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        long latency = System.nanoTime() - due;
+                        if (error == null && response.statusCode() < 500) {
+                            latencies[slot] = latency;
+                        } else {
+                            latencies[slot] = -1;
+                            if (counted) {
+                                errors.incrementAndGet();
+                            }
+                        }
+                        done.countDown();
+                    });
+        }
+
+        long behind = System.nanoTime() - (start + (long) (count * intervalNanos));
+        if (behind > TimeUnit.MILLISECONDS.toNanos(100)) {
+            System.out.printf("warning: the generator fell %d ms behind schedule%n", behind / 1_000_000);
+        }
+        done.await(60, TimeUnit.SECONDS);
+
+        long[] measured = Arrays.stream(latencies, warmupCount, count).filter(latency -> latency > 0).toArray();
+        long unanswered = done.getCount();
+        if (unanswered > 0) {
+            System.out.printf("warning: %d requests still unanswered after 60 s, left out%n", unanswered);
+        }
+        report(measured, errors.get(), durationSeconds);
+    }
+
+    private static void report(long[] all, long errors, long durationSeconds) {
+        int total = all.length;
+        Arrays.sort(all);
+
+        System.out.printf("requests   %d (%d errors)%n", total, errors);
+        System.out.printf("throughput %.1f req/s%n", total / (double) durationSeconds);
+        System.out.printf("p50        %.2f ms%n", percentile(all, 0.50));
+        System.out.printf("p99        %.2f ms%n", percentile(all, 0.99));
+        System.out.printf("max        %.2f ms%n", total > 0 ? all[total - 1] / 1_000_000.0 : 0.0);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    private static String option(String[] args, String name, String defaultValue) {
+        for (int i = 0; i + 1 < args.length; i++) {
+            if (args[i].equals(name)) {
+                return args[i + 1];
+            }
+        }
+        return defaultValue;
+    }
+
+    // One per client thread, so recording a sample needs no synchronisation
+    private static class LatencyLog {
+        private long[] nanos = new long[1024];
+        private int size;
+
+        void add(long value) {
+            if (size == nanos.length) {
+                nanos = Arrays.copyOf(nanos, size * 2);
+            }
+            nanos[size++] = value;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package kz.aitu.digitalcontent.benchmarks;
+
+import org.openjdk.jmh.Main;
+
+import java.util.Arrays;
+
+// Entry point of benchmarks.jar: the standard JMH runner with the GC profiler on by default,
+// so every run reports allocation per operation (gc.alloc.rate.norm) next to the timings.
+// Passing any -prof option replaces the default.
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws Exception {
+        if (Arrays.asList(args).contains("-prof")) {
+            Main.main(args);
+            return;
+        }
+
+        String[] withGc = Arrays.copyOf(args, args.length + 2);
+        withGc[args.length] = "-prof";
+        withGc[args.length + 1] = "gc";
+        Main.main(withGc);
+    }
+}
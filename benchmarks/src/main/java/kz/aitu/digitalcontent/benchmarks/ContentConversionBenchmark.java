@@ -0,0 +1,61 @@
+package kz.aitu.digitalcontent.benchmarks;
+
+import kz.aitu.digitalcontent.dto.DigitalContentDTO;
+import kz.aitu.digitalcontent.dto.DigitalContentMapper;
+import kz.aitu.digitalcontent.model.Creator;
+import kz.aitu.digitalcontent.model.DigitalContent;
+import kz.aitu.digitalcontent.patterns.DigitalContentFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Per-item work on every content request: entity <-> DTO conversion (formerly
+// DigitalContentController.convertToDTO/convertToEntity), the factory and validation
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ContentConversionBenchmark {
+
+    @Param({"GAME", "MOVIE", "MUSIC_ALBUM"})
+    public String type;
+
+    private DigitalContent content;
+    private DigitalContentDTO dto;
+    private Creator creator;
+
+    @Setup
+    public void setUp() {
+        for (int id = 1; content == null; id++) {
+            DigitalContent candidate = SampleContent.content(id);
+            if (candidate.getEntityType().equals(type)) {
+                content = candidate;
+            }
+        }
+        dto = DigitalContentMapper.toDTO(content);
+        creator = content.getCreator();
+    }
+
+    @Benchmark
+    public DigitalContentDTO toDTO() {
+        return DigitalContentMapper.toDTO(content);
+    }
+
+    @Benchmark
+    public DigitalContent toEntity() {
+        return DigitalContentMapper.toEntity(dto);
+    }
+
+    @Benchmark
+    public DigitalContent factoryCreateContent() {
+        return DigitalContentFactory.createContent(type, 1, "Neon Harbor", 2020, true, creator, "Catalog item");
+    }
+
+    @Benchmark
+    public DigitalContent validate() {
+        content.validate();
+        return content;
+    }
+}
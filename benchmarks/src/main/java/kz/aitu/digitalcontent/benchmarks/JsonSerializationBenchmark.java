@@ -0,0 +1,46 @@
+package kz.aitu.digitalcontent.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import kz.aitu.digitalcontent.dto.DigitalContentDTO;
+import kz.aitu.digitalcontent.utils.JsonStreamingUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Jackson serialization of DigitalContentDTO lists: the whole list at once (what a List
+// response body does) against JsonStreamingUtils element by element (the streamed endpoints).
+// Output goes to a discarding stream so only serialization is measured. The 1M case needs
+// a heap of about 1 GB for the input list.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private List<DigitalContentDTO> dtos;
+
+    @Setup
+    public void setUp() {
+        dtos = SampleContent.dtos(size);
+    }
+
+    @Benchmark
+    public void writeList() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), dtos);
+    }
+
+    @Benchmark
+    public void writeStreamed() throws IOException {
+        JsonStreamingUtils.<DigitalContentDTO>jsonArray(objectMapper, dtos::forEach)
+                .writeTo(OutputStream.nullOutputStream());
+    }
+}
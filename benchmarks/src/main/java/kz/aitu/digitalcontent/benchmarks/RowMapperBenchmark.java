@@ -0,0 +1,125 @@
+package kz.aitu.digitalcontent.benchmarks;
+
+import kz.aitu.digitalcontent.model.DigitalContent;
+import kz.aitu.digitalcontent.model.Movie;
+import kz.aitu.digitalcontent.model.MusicAlbum;
+import kz.aitu.digitalcontent.repository.mapper.ContentRowMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// ContentRowMapper.map (the old mapResultSetToContent) against an in-memory ResultSet.
+// The fake ResultSet is a dynamic proxy, so every column read costs a reflective call;
+// readColumnsOnly does the same reads without building objects, and the difference
+// between the two is the mapper's own cost.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RowMapperBenchmark {
+
+    private static final String[] COLUMNS = {
+            "id", "name", "release_year", "available", "content_type", "description",
+            "creator_country", "creator_bio", "rentable", "duration_minutes", "track_count"
+    };
+
+    private Object[][] rows;
+    private int cursor;
+    private ResultSet resultSet;
+    private ContentRowMapper mapper;
+
+    @Setup
+    public void setUp() throws SQLException {
+        rows = new Object[SampleContent.TYPES.length][];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = toRow(SampleContent.content(i + 1));
+        }
+        resultSet = fakeResultSet();
+        mapper = new ContentRowMapper(resultSet);
+    }
+
+    @Benchmark
+    public DigitalContent mapRow() throws SQLException {
+        nextRow();
+        return mapper.map(resultSet);
+    }
+
+    @Benchmark
+    public void readColumnsOnly(Blackhole blackhole) throws SQLException {
+        nextRow();
+        blackhole.consume(resultSet.getInt(1));
+        blackhole.consume(resultSet.getString(2));
+        blackhole.consume(resultSet.getInt(3));
+        blackhole.consume(resultSet.getBoolean(4));
+        blackhole.consume(resultSet.getString(6));
+        blackhole.consume(resultSet.getString(7));
+        blackhole.consume(resultSet.getString(8));
+        String type = resultSet.getString(5);
+        if ("MOVIE".equals(type)) {
+            blackhole.consume(resultSet.getBoolean(9));
+            blackhole.consume(resultSet.getInt(10));
+        } else if ("MUSIC_ALBUM".equals(type)) {
+            blackhole.consume(resultSet.getInt(11));
+        }
+    }
+
+    // Cycles through a game, a movie and an album so the type switch is not always taken the same way
+    private void nextRow() {
+        cursor = cursor + 1 == rows.length ? 0 : cursor + 1;
+    }
+
+    private ResultSet fakeResultSet() {
+        Map<String, Integer> columnIndex = new HashMap<>();
+        for (int i = 0; i < COLUMNS.length; i++) {
+            columnIndex.put(COLUMNS[i], i + 1);
+        }
+
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "findColumn":
+                            return columnIndex.get((String) args[0]);
+                        case "getString":
+                            return rows[cursor][(Integer) args[0] - 1];
+                        case "getInt": {
+                            Object value = rows[cursor][(Integer) args[0] - 1];
+                            return value != null ? value : 0;
+                        }
+                        case "getBoolean": {
+                            Object value = rows[cursor][(Integer) args[0] - 1];
+                            return value != null ? value : false;
+                        }
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private static Object[] toRow(DigitalContent content) {
+        Object[] row = new Object[COLUMNS.length];
+        row[0] = content.getId();
+        row[1] = content.getName();
+        row[2] = content.getReleaseYear();
+        row[3] = content.isAvailable();
+        row[4] = content.getEntityType();
+        row[5] = content.getDescription();
+        row[6] = content.getCreator().getCountry();
+        row[7] = content.getCreator().getBio();
+        if (content instanceof Movie) {
+            row[8] = ((Movie) content).isRentable();
+            row[9] = ((Movie) content).getDurationMinutes();
+        } else if (content instanceof MusicAlbum) {
+            row[10] = ((MusicAlbum) content).getCountTracks();
+        }
+        return row;
+    }
+}
@@ -0,0 +1,61 @@
+package kz.aitu.digitalcontent.benchmarks;
+
+import kz.aitu.digitalcontent.dto.DigitalContentDTO;
+import kz.aitu.digitalcontent.dto.DigitalContentMapper;
+import kz.aitu.digitalcontent.model.Creator;
+import kz.aitu.digitalcontent.model.DigitalContent;
+import kz.aitu.digitalcontent.model.Game;
+import kz.aitu.digitalcontent.patterns.DigitalContentFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Deterministic catalog data shaped like the seeded database: games, movies and albums in turn
+final class SampleContent {
+
+    static final String[] TYPES = {"GAME", "MOVIE", "MUSIC_ALBUM"};
+
+    private static final String[] WORDS = {
+            "Silent", "Harbor", "Neon", "Echoes", "Northern", "Garden", "Broken", "Signal",
+            "Golden", "Hour", "Last", "Frontier", "Paper", "Moon", "Hidden", "River"
+    };
+
+    private SampleContent() {
+    }
+
+    static DigitalContent content(int id) {
+        Random random = new Random(id);
+        String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + id;
+        int year = 1950 + random.nextInt(75);
+        Creator creator = new Creator("Kazakhstan", "Independent studio from Astana");
+        String description = "Catalog item number " + id;
+
+        switch (TYPES[id % TYPES.length]) {
+            case "MOVIE":
+                return DigitalContentFactory.createMovie(id, name, year, id % 4 != 0, creator, description,
+                        id % 2 == 0, 80 + random.nextInt(100));
+            case "MUSIC_ALBUM":
+                return DigitalContentFactory.createMusicAlbum(id, name, year, id % 4 != 0, creator, description,
+                        8 + random.nextInt(12));
+            default:
+                return new Game(id, name, year, id % 4 != 0, creator, description);
+        }
+    }
+
+    static List<DigitalContent> contents(int count) {
+        List<DigitalContent> contents = new ArrayList<>(count);
+        for (int id = 1; id <= count; id++) {
+            contents.add(content(id));
+        }
+        return contents;
+    }
+
+    static List<DigitalContentDTO> dtos(int count) {
+        List<DigitalContentDTO> dtos = new ArrayList<>(count);
+        for (int id = 1; id <= count; id++) {
+            dtos.add(DigitalContentMapper.toDTO(content(id)));
+        }
+        return dtos;
+    }
+}
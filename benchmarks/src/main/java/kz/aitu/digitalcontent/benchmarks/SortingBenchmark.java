@@ -0,0 +1,62 @@
+package kz.aitu.digitalcontent.benchmarks;
+
+import kz.aitu.digitalcontent.model.DigitalContent;
+import kz.aitu.digitalcontent.utils.SortingUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// SortingUtils over catalog-sized lists. Sorts work on a freshly shuffled copy per call;
+// at these sizes the per-invocation setup is small next to the measured sort.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SortingBenchmark {
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private List<DigitalContent> contents;
+    private List<DigitalContent> shuffled;
+    private final Random random = new Random(42);
+
+    @Setup(Level.Trial)
+    public void createContents() {
+        contents = SampleContent.contents(size);
+    }
+
+    @Setup(Level.Invocation)
+    public void shuffle() {
+        shuffled = new ArrayList<>(contents);
+        Collections.shuffle(shuffled, random);
+    }
+
+    @Benchmark
+    public List<DigitalContent> sortById() {
+        SortingUtils.sortById(shuffled);
+        return shuffled;
+    }
+
+    @Benchmark
+    public List<DigitalContent> sortByName() {
+        SortingUtils.sortByName(shuffled);
+        return shuffled;
+    }
+
+    @Benchmark
+    public List<DigitalContent> filterByNameContains() {
+        return SortingUtils.filterByNameContains(contents, "harbor");
+    }
+
+    @Benchmark
+    public long countMatching() {
+        return SortingUtils.countMatching(contents, DigitalContent::isAvailable);
+    }
+}
@@ -1,11 +1,16 @@
 package kz.aitu.digitalcontent;
 
+import kz.aitu.digitalcontent.patterns.LoggerService;
 import kz.aitu.digitalcontent.utils.DatabaseInitializer;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 
-@SpringBootApplication(exclude = {DataSourceAutoConfiguration.class})
+// R2DBC is only configured by the reactive app (see the reactive package)
+@SpringBootApplication(exclude = {DataSourceAutoConfiguration.class, R2dbcAutoConfiguration.class})
 public class DigitalcontentApplication {
 
     public static void main(String[] args) {
@@ -18,4 +23,22 @@ public class DigitalcontentApplication {
         System.out.println("   Server running on: http://localhost:8080");
         System.out.println("========================================\n");
     }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reportThreadingMode(ApplicationReadyEvent event) {
+        boolean virtualThreads = event.getApplicationContext().getEnvironment()
+                .getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+        if (!virtualThreads) {
+            return;
+        }
+
+        // Spring Boot silently keeps platform threads below Java 21
+        LoggerService logger = LoggerService.getInstance();
+        if (Runtime.version().feature() < 21) {
+            logger.error("spring.threads.virtual.enabled is set but Java {} has no virtual threads; "
+                    + "requests run on platform threads", Runtime.version().feature());
+        } else {
+            logger.info("Handling requests on virtual threads");
+        }
+    }
 }
\ No newline at end of file
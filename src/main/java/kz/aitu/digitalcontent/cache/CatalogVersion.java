@@ -0,0 +1,113 @@
+package kz.aitu.digitalcontent.cache;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import kz.aitu.digitalcontent.patterns.LoggerService;
+import kz.aitu.digitalcontent.repository.DigitalContentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Version numbers for the catalog, bumped on every content write. They drive the
+// ETags of the catalog endpoints, so an unchanged resource can be answered with
+// 304 before any query runs.
+//
+// Every tag has two parts. The local counters below are bumped by writes made through
+// this instance, so those show up at once. The database part is the catalog_version row,
+// which a statement trigger bumps on any change to digital_content (the reactive app,
+// other instances, plain SQL); it is polled every content.etag.poll-ms, which bounds
+// how long such a write can be answered with a stale 304. The database version is not
+// per row, so an outside write changes every row tag too.
+//
+// The startup epoch is part of every tag, so a restart invalidates all tags instead of
+// reusing old local numbers.
+@Component
+public class CatalogVersion {
+
+    private final long epoch = System.currentTimeMillis();
+    private final AtomicLong global = new AtomicLong();
+    // Version of the last bulk write; rows without their own version inherit it
+    private final AtomicLong bulk = new AtomicLong();
+    private final ConcurrentMap<Integer, Long> rows = new ConcurrentHashMap<>();
+
+    private final DigitalContentRepository repository;
+    private final long pollMillis;
+    private final LoggerService logger = LoggerService.getInstance();
+    private volatile long dbVersion = -1;
+    private volatile boolean pollFailing;
+    private ScheduledExecutorService poller;
+
+    @Autowired
+    public CatalogVersion(DigitalContentRepository repository,
+                          @Value("${content.etag.poll-ms:1000}") long pollMillis) {
+        this.repository = repository;
+        this.pollMillis = pollMillis;
+    }
+
+    @PostConstruct
+    public void startPolling() {
+        if (pollMillis <= 0) {
+            return;
+        }
+
+        poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "catalog-version-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller.scheduleWithFixedDelay(this::poll, 0, pollMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stopPolling() {
+        if (poller != null) {
+            poller.shutdownNow();
+        }
+    }
+
+    public void bump(int id) {
+        rows.put(id, global.incrementAndGet());
+    }
+
+    // For writes that touch rows we cannot name (e.g. bulk import)
+    public void bumpAll() {
+        bulk.set(global.incrementAndGet());
+    }
+
+    public String catalogTag() {
+        return "\"c" + epoch + "-" + dbVersion + "-" + global.get() + "\"";
+    }
+
+    // Rows not written one by one since startup carry the last bulk version, so an id that
+    // was a 404 before an import does not keep its tag once the import creates the row
+    public String rowTag(int id) {
+        Long version = rows.get(id);
+        return "\"r" + epoch + "-" + dbVersion + "-" + id + "-" + (version != null ? version : bulk.get()) + "\"";
+    }
+
+    private void poll() {
+        try {
+            dbVersion = repository.getCatalogVersion();
+            if (pollFailing) {
+                pollFailing = false;
+                logger.info("Catalog version readable again, ETags follow the database");
+            }
+        } catch (RuntimeException e) {
+            // Without the database version, change the tags every poll so nothing is
+            // answered from a stale tag for longer than it would be with the database
+            dbVersion = -2 - System.currentTimeMillis() / pollMillis;
+            if (!pollFailing) {
+                pollFailing = true;
+                logger.error("Catalog version not readable, ETags now change every {} ms: {}",
+                        pollMillis, e.getMessage());
+            }
+        }
+    }
+}
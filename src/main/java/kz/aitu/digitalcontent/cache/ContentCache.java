@@ -0,0 +1,102 @@
+package kz.aitu.digitalcontent.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import kz.aitu.digitalcontent.model.DigitalContent;
+import kz.aitu.digitalcontent.repository.DigitalContentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Read-through cache in front of DigitalContentRepository.getByIdFromPrimary. Caffeine evicts by
+// size with W-TinyLFU, so a burst of one-off lookups does not push out the hot items.
+// Entries also expire after the TTL, which bounds staleness when another instance
+// (or a manual SQL change) updates a row this instance has cached.
+@Component
+public class ContentCache {
+
+    private final DigitalContentRepository repository;
+    private final Cache<Integer, DigitalContent> cache;
+
+    @Autowired
+    public ContentCache(DigitalContentRepository repository,
+                        @Value("${content.cache.max-size:10000}") long maxSize,
+                        @Value("${content.cache.ttl-seconds:300}") long ttlSeconds) {
+        this.repository = repository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    // Concurrent misses for the same id share one database query; unknown ids are not cached.
+    // Misses read the primary: right after an update or delete invalidates an entry, a lagging
+    // replica could still return the old row, which would then be served for the whole TTL.
+    public Optional<DigitalContent> getById(int id) {
+        return Optional.ofNullable(cache.get(id, key -> repository.getByIdFromPrimary(key).orElse(null)));
+    }
+
+    // Bulk form for search results: hits come from memory and all misses share one query.
+    // Returned in the order of the ids; ids with no row are left out. The misses are not put
+    // into the cache: Caffeine's bulk load would store them after the query with a plain put,
+    // overwriting a newer row (or undoing an invalidate) written while the query ran. Single
+    // lookups through getById() still fill the cache, atomically per key.
+    public List<DigitalContent> getByIds(int[] ids) {
+        List<Integer> keys = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            keys.add(id);
+        }
+
+        Map<Integer, DigitalContent> found = new HashMap<>(cache.getAllPresent(keys));
+        int[] missingIds = keys.stream()
+                .filter(key -> !found.containsKey(key))
+                .mapToInt(Integer::intValue)
+                .distinct()
+                .toArray();
+        if (missingIds.length > 0) {
+            for (DigitalContent content : repository.getByIdsFromPrimary(missingIds)) {
+                found.put(content.getId(), content);
+            }
+        }
+
+        List<DigitalContent> contents = new ArrayList<>(found.size());
+        for (Integer key : keys) {
+            DigitalContent content = found.get(key);
+            if (content != null) {
+                contents.add(content);
+            }
+        }
+        return contents;
+    }
+
+    public void put(DigitalContent content) {
+        cache.put(content.getId(), content);
+    }
+
+    public void invalidate(int id) {
+        cache.invalidate(id);
+    }
+
+    public Map<String, Object> getStats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", cache.estimatedSize());
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictionCount", stats.evictionCount());
+        result.put("loadFailureCount", stats.loadFailureCount());
+        result.put("averageLoadMillis", stats.averageLoadPenalty() / 1_000_000.0);
+        return result;
+    }
+}
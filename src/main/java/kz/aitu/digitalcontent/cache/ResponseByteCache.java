@@ -0,0 +1,182 @@
+package kz.aitu.digitalcontent.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+// Second-tier cache holding finished JSON responses (and a gzipped copy when it
+// pays off) in direct ByteBuffers, so hot payloads skip DTO conversion, Jackson
+// and gzip, and the bytes stay out of the Java heap. Each entry remembers the
+// ETag it was built for and is only served while that tag is current. Entries also
+// expire after content.cache.ttl-seconds, like ContentCache, so an entry whose tag
+// stopped changing (no writes at all) still does not pin direct memory forever.
+//
+// The gzipped body is a different representation, so it is sent under its own strong
+// tag: the identity tag with "-gz" inside the quotes (gzipTag()). A cache or client
+// holding one encoding therefore never revalidates it against the other.
+//
+// Items and pages live in separate caches: every write drops all pages, which is
+// then one invalidateAll() instead of a scan over every key. The caps bound what
+// the caches hold, not the process's direct memory: an evicted buffer is freed
+// only when the GC collects it, so after bursts of writes the JVM can briefly hold
+// more than max-bytes. jvmDirectBytes in getStats() is the real figure.
+@Component
+public class ResponseByteCache {
+
+    private static final String ITEM_PREFIX = "item:";
+    private static final String PAGE_PREFIX = "page:";
+    private static final String GZIP_TAG_SUFFIX = "-gz";
+
+    private final Cache<String, CachedResponse> items;
+    private final Cache<String, CachedResponse> pages;
+    private final int gzipMinBytes;
+
+    // Pages get page-max-bytes of the total and items the rest
+    public ResponseByteCache(@Value("${content.response-cache.max-bytes:67108864}") long maxBytes,
+                             @Value("${content.response-cache.page-max-bytes:16777216}") long pageMaxBytes,
+                             @Value("${content.response-cache.gzip-min-bytes:1024}") int gzipMinBytes,
+                             @Value("${content.cache.ttl-seconds:300}") long ttlSeconds) {
+        this.gzipMinBytes = gzipMinBytes;
+        long pageBytes = Math.min(pageMaxBytes, maxBytes);
+        this.items = newCache(maxBytes - pageBytes, ttlSeconds);
+        this.pages = newCache(pageBytes, ttlSeconds);
+    }
+
+    public static String itemKey(int id) {
+        return ITEM_PREFIX + id;
+    }
+
+    public static String pageKey(String query) {
+        return PAGE_PREFIX + query;
+    }
+
+    // "c1-2-3" becomes "c1-2-3-gz"
+    public static String gzipTag(String etag) {
+        return etag.substring(0, etag.length() - 1) + GZIP_TAG_SUFFIX + "\"";
+    }
+
+    // Null when missing or built for an older version of the resource
+    public CachedResponse get(String key, String etag) {
+        CachedResponse cached = cacheFor(key).getIfPresent(key);
+        return cached != null && cached.etag.equals(etag) ? cached : null;
+    }
+
+    public CachedResponse put(String key, String etag, byte[] json) {
+        CachedResponse cached = new CachedResponse(etag, toDirect(json),
+                json.length >= gzipMinBytes ? toDirect(gzip(json)) : null);
+        cacheFor(key).put(key, cached);
+        return cached;
+    }
+
+    public void evictItem(int id) {
+        items.invalidate(itemKey(id));
+    }
+
+    // Any write can move items between pages, so every cached page goes
+    public void evictPages() {
+        pages.invalidateAll();
+    }
+
+    public void write(CachedResponse cached, String acceptEncoding, HttpServletResponse response) throws IOException {
+        boolean gzip = cached.gzipped != null && acceptEncoding != null && acceptEncoding.contains("gzip");
+        // duplicate() gives this request its own position, so concurrent writers do not interfere
+        ByteBuffer body = (gzip ? cached.gzipped : cached.json).duplicate();
+
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setHeader(HttpHeaders.ETAG, gzip ? gzipTag(cached.etag) : cached.etag);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setContentLength(body.remaining());
+
+        WritableByteChannel channel = Channels.newChannel(response.getOutputStream());
+        while (body.hasRemaining()) {
+            channel.write(body);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        CacheStats stats = items.stats().plus(pages.stats());
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("itemEntries", items.estimatedSize());
+        result.put("pageEntries", pages.estimatedSize());
+        result.put("directBytes", weightedSize(items) + weightedSize(pages));
+        // Includes evicted buffers the GC has not collected yet, and other users of direct memory
+        result.put("jvmDirectBytes", ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class).stream()
+                .filter(pool -> pool.getName().equals("direct"))
+                .mapToLong(BufferPoolMXBean::getMemoryUsed)
+                .sum());
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("evictionCount", stats.evictionCount());
+        return result;
+    }
+
+    private static Cache<String, CachedResponse> newCache(long maxBytes, long ttlSeconds) {
+        return Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, CachedResponse value) -> value.size())
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    private Cache<String, CachedResponse> cacheFor(String key) {
+        return key.startsWith(PAGE_PREFIX) ? pages : items;
+    }
+
+    private static long weightedSize(Cache<String, CachedResponse> cache) {
+        return cache.policy().eviction().map(e -> e.weightedSize().orElse(0)).orElse(0L);
+    }
+
+    private static ByteBuffer toDirect(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes).flip();
+        return buffer.asReadOnlyBuffer();
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    public static class CachedResponse {
+        private final String etag;
+        private final ByteBuffer json;
+        private final ByteBuffer gzipped;
+
+        CachedResponse(String etag, ByteBuffer json, ByteBuffer gzipped) {
+            this.etag = etag;
+            this.json = json;
+            this.gzipped = gzipped;
+        }
+
+        int size() {
+            return json.capacity() + (gzipped != null ? gzipped.capacity() : 0);
+        }
+    }
+}
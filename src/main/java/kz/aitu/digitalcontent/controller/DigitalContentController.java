@@ -1,58 +1,136 @@
 package kz.aitu.digitalcontent.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.type.TypeReference;
+import jakarta.servlet.http.HttpServletResponse;
+import kz.aitu.digitalcontent.cache.CatalogVersion;
+import kz.aitu.digitalcontent.cache.ResponseByteCache;
+import kz.aitu.digitalcontent.dto.ContentField;
 import kz.aitu.digitalcontent.dto.DigitalContentDTO;
-import kz.aitu.digitalcontent.model.*;
-import kz.aitu.digitalcontent.patterns.DigitalContentFactory;
+import kz.aitu.digitalcontent.dto.DigitalContentMapper;
+import kz.aitu.digitalcontent.dto.ImportResultDTO;
+import kz.aitu.digitalcontent.dto.PageDTO;
+import kz.aitu.digitalcontent.model.DigitalContent;
 import kz.aitu.digitalcontent.service.interfaces.DigitalContentService;
+import kz.aitu.digitalcontent.utils.ContentImportReader;
+import kz.aitu.digitalcontent.utils.JsonStreamingUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/content")
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = HttpHeaders.ETAG)
 public class DigitalContentController {
 
     private final DigitalContentService service;
+    private final ObjectMapper objectMapper;
+    private final CatalogVersion catalogVersion;
+    private final ResponseByteCache responseCache;
 
     @Autowired
-    public DigitalContentController(DigitalContentService service) {
+    public DigitalContentController(DigitalContentService service, ObjectMapper objectMapper,
+                                    CatalogVersion catalogVersion, ResponseByteCache responseCache) {
         this.service = service;
+        this.objectMapper = objectMapper;
+        this.catalogVersion = catalogVersion;
+        this.responseCache = responseCache;
     }
 
+    // The ETag is taken before reading, so a write that lands mid-request only makes it stale early
     @GetMapping
-    public ResponseEntity<List<DigitalContentDTO>> getAllContent() {
-        List<DigitalContent> contents = service.getAllContent();
-        List<DigitalContentDTO> dtos = contents.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(dtos);
+    public ResponseEntity<?> getAllContent(@RequestParam(required = false) String fields, WebRequest request) {
+        String etag = catalogVersion.catalogTag();
+        if (request.checkNotModified(etag)) {
+            return notModified(etag);
+        }
+
+        if (fields != null) {
+            return streamContentFields(ContentField.parse(fields), false, etag);
+        }
+
+        StreamingResponseBody body = JsonStreamingUtils.<DigitalContentDTO>jsonArray(objectMapper,
+                action -> service.streamAllContent(content -> action.accept(DigitalContentMapper.toDTO(content))));
+        return ResponseEntity.ok().eTag(etag).contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    // Pages are written from the byte cache straight to the response, like getContentById
+    @GetMapping(params = "limit")
+    public void getContentPage(@RequestParam(required = false) String after,
+                               @RequestParam(required = false) Integer limit,
+                               @RequestParam(required = false) String fields,
+                               WebRequest request, HttpServletResponse response) throws IOException {
+        String etag = catalogVersion.catalogTag();
+        if (checkNotModified(request, etag)) {
+            return;
+        }
+
+        String key = ResponseByteCache.pageKey("content?after=" + after + "&limit=" + limit + "&fields=" + fields);
+        writeCached(key, etag, request, response, () -> fields != null
+                ? service.getContentFieldsPage(ContentField.parse(fields), false, after, limit)
+                : service.getContentPage(after, limit).map(DigitalContentMapper::toDTO));
+    }
+
+    // after= alone still means a page (of the default size)
+    @GetMapping(params = {"after", "!limit"})
+    public void getContentPageAfter(@RequestParam String after,
+                                    @RequestParam(required = false) String fields,
+                                    WebRequest request, HttpServletResponse response) throws IOException {
+        getContentPage(after, null, fields, request, response);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<DigitalContentDTO> getContentById(@PathVariable int id) {
-        DigitalContent content = service.getContentById(id);
-        return ResponseEntity.ok(convertToDTO(content));
+    public void getContentById(@PathVariable int id, WebRequest request,
+                               HttpServletResponse response) throws IOException {
+        String etag = catalogVersion.rowTag(id);
+        // checkNotModified has already set the 304 status and ETag header
+        if (checkNotModified(request, etag)) {
+            return;
+        }
+
+        writeCached(ResponseByteCache.itemKey(id), etag, request, response,
+                () -> DigitalContentMapper.toDTO(service.getContentById(id)));
     }
 
     @PostMapping
     public ResponseEntity<DigitalContentDTO> createContent(@RequestBody DigitalContentDTO dto) {
-        DigitalContent content = convertToEntity(dto);
+        DigitalContent content = DigitalContentMapper.toEntity(dto);
         DigitalContent created = service.createContent(content);
-        return ResponseEntity.status(HttpStatus.CREATED).body(convertToDTO(created));
+        return ResponseEntity.status(HttpStatus.CREATED).body(DigitalContentMapper.toDTO(created));
+    }
+
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<ImportResultDTO> importContent(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body) {
+        ContentImportReader.Format format = contentType.isCompatibleWith(MediaType.valueOf("text/csv"))
+                ? ContentImportReader.Format.CSV
+                : ContentImportReader.Format.NDJSON;
+
+        ImportResultDTO result = service.importContent(new ContentImportReader(body, format));
+        return ResponseEntity.ok(result);
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<DigitalContentDTO> updateContent(
             @PathVariable int id,
             @RequestBody DigitalContentDTO dto) {
-        DigitalContent content = convertToEntity(dto);
+        DigitalContent content = DigitalContentMapper.toEntity(dto);
         DigitalContent updated = service.updateContent(id, content);
-        return ResponseEntity.ok(convertToDTO(updated));
+        return ResponseEntity.ok(DigitalContentMapper.toDTO(updated));
     }
 
     @DeleteMapping("/{id}")
@@ -62,80 +140,105 @@ public class DigitalContentController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<DigitalContentDTO>> searchContent(@RequestParam String keyword) {
-        List<DigitalContent> results = service.searchByName(keyword);
+    public ResponseEntity<?> searchContent(@RequestParam String keyword,
+                                           @RequestParam(required = false) Integer limit,
+                                           @RequestParam(required = false) String fields,
+                                           @RequestParam(defaultValue = "false") boolean fulltext) {
+        List<DigitalContent> results = fulltext
+                ? service.searchFullText(keyword, limit)
+                : service.searchByName(keyword, limit);
+
+        if (fields != null) {
+            Set<ContentField> selected = ContentField.parse(fields);
+            List<Map<String, Object>> rows = results.stream()
+                    .map(content -> ContentField.select(toFieldMap(DigitalContentMapper.toDTO(content)), selected))
+                    .collect(Collectors.toList());
+            return ResponseEntity.ok(rows);
+        }
+
         List<DigitalContentDTO> dtos = results.stream()
-                .map(this::convertToDTO)
+                .map(DigitalContentMapper::toDTO)
                 .collect(Collectors.toList());
         return ResponseEntity.ok(dtos);
     }
 
-    @GetMapping("/available")
-    public ResponseEntity<List<DigitalContentDTO>> getAvailableContent() {
-        List<DigitalContent> contents = service.getAvailableContent();
-        List<DigitalContentDTO> dtos = contents.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(dtos);
+    @GetMapping("/suggest")
+    public ResponseEntity<List<String>> suggestContent(@RequestParam String prefix,
+                                                       @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(service.suggestNames(prefix, limit));
     }
 
-    private DigitalContentDTO convertToDTO(DigitalContent content) {
-        DigitalContentDTO dto = new DigitalContentDTO();
-        dto.setId(content.getId());
-        dto.setName(content.getName());
-        dto.setReleaseYear(content.getReleaseYear());
-        dto.setAvailable(content.isAvailable());
-        dto.setContentType(content.getEntityType());
-        dto.setDescription(content.getDescription());
+    @GetMapping("/available")
+    public ResponseEntity<?> getAvailableContent(@RequestParam(required = false) String fields, WebRequest request) {
+        String etag = catalogVersion.catalogTag();
+        if (request.checkNotModified(etag)) {
+            return notModified(etag);
+        }
 
-        if (content.getCreator() != null) {
-            dto.setCreatorCountry(content.getCreator().getCountry());
-            dto.setCreatorBio(content.getCreator().getBio());
+        if (fields != null) {
+            return streamContentFields(ContentField.parse(fields), true, etag);
         }
 
-        if (content instanceof Movie) {
-            Movie movie = (Movie) content;
-            dto.setRentable(movie.isRentable());
-            dto.setDurationMinutes(movie.getDurationMinutes());
-        } else if (content instanceof MusicAlbum) {
-            MusicAlbum album = (MusicAlbum) content;
-            dto.setTrackCount(album.getCountTracks());
+        StreamingResponseBody body = JsonStreamingUtils.<DigitalContentDTO>jsonArray(objectMapper,
+                action -> service.streamAvailableContent(content -> action.accept(DigitalContentMapper.toDTO(content))));
+        return ResponseEntity.ok().eTag(etag).contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    @GetMapping(value = "/available", params = "limit")
+    public void getAvailablePage(@RequestParam(required = false) String after,
+                                 @RequestParam(required = false) Integer limit,
+                                 @RequestParam(required = false) String fields,
+                                 WebRequest request, HttpServletResponse response) throws IOException {
+        String etag = catalogVersion.catalogTag();
+        if (checkNotModified(request, etag)) {
+            return;
         }
 
-        return dto;
-    }
-
-    private DigitalContent convertToEntity(DigitalContentDTO dto) {
-        Creator creator = new Creator(dto.getCreatorCountry(), dto.getCreatorBio());
-
-        DigitalContent content;
-
-        switch (dto.getContentType().toUpperCase()) {
-            case "MOVIE":
-                content = DigitalContentFactory.createMovie(
-                        dto.getId(), dto.getName(), dto.getReleaseYear(),
-                        dto.isAvailable(), creator, dto.getDescription(),
-                        dto.getRentable() != null ? dto.getRentable() : false,
-                        dto.getDurationMinutes() != null ? dto.getDurationMinutes() : 0
-                );
-                break;
-
-            case "MUSIC_ALBUM":
-            case "ALBUM":
-                content = DigitalContentFactory.createMusicAlbum(
-                        dto.getId(), dto.getName(), dto.getReleaseYear(),
-                        dto.isAvailable(), creator, dto.getDescription(),
-                        dto.getTrackCount() != null ? dto.getTrackCount() : 0
-                );
-                break;
-
-            default:
-                content = DigitalContentFactory.createContent(
-                        "GAME", dto.getId(), dto.getName(), dto.getReleaseYear(),
-                        dto.isAvailable(), creator, dto.getDescription()
-                );
+        String key = ResponseByteCache.pageKey("available?after=" + after + "&limit=" + limit + "&fields=" + fields);
+        writeCached(key, etag, request, response, () -> fields != null
+                ? service.getContentFieldsPage(ContentField.parse(fields), true, after, limit)
+                : service.getAvailablePage(after, limit).map(DigitalContentMapper::toDTO));
+    }
+
+    @GetMapping(value = "/available", params = {"after", "!limit"})
+    public void getAvailablePageAfter(@RequestParam String after,
+                                      @RequestParam(required = false) String fields,
+                                      WebRequest request, HttpServletResponse response) throws IOException {
+        getAvailablePage(after, null, fields, request, response);
+    }
+
+    // Serves the pre-serialized bytes when they match the current ETag, otherwise builds and caches them
+    private void writeCached(String key, String etag, WebRequest request, HttpServletResponse response,
+                             Supplier<Object> loader) throws IOException {
+        ResponseByteCache.CachedResponse cached = responseCache.get(key, etag);
+        if (cached == null) {
+            cached = responseCache.put(key, etag, objectMapper.writeValueAsBytes(loader.get()));
         }
+        responseCache.write(cached, request.getHeader(HttpHeaders.ACCEPT_ENCODING), response);
+    }
+
+    // Cached responses may have been sent gzipped under ResponseByteCache.gzipTag, so either
+    // form of the current tag is still valid; the 304 echoes the one the client holds
+    private static boolean checkNotModified(WebRequest request, String etag) {
+        String gzipTag = ResponseByteCache.gzipTag(etag);
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && ifNoneMatch.contains(gzipTag)) {
+            return request.checkNotModified(gzipTag);
+        }
+        return request.checkNotModified(etag);
+    }
+
+    private ResponseEntity<?> streamContentFields(Set<ContentField> fields, boolean availableOnly, String etag) {
+        StreamingResponseBody body = JsonStreamingUtils.<Map<String, Object>>jsonArray(objectMapper,
+                action -> service.streamContentFields(fields, availableOnly, action));
+        return ResponseEntity.ok().eTag(etag).contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    private <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    }
 
-        return content;
+    private Map<String, Object> toFieldMap(DigitalContentDTO dto) {
+        return objectMapper.convertValue(dto, new TypeReference<Map<String, Object>>() {});
     }
-}
\ No newline at end of file
+}
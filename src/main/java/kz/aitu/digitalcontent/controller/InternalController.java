@@ -0,0 +1,87 @@
+package kz.aitu.digitalcontent.controller;
+
+import kz.aitu.digitalcontent.cache.ContentCache;
+import kz.aitu.digitalcontent.cache.ResponseByteCache;
+import kz.aitu.digitalcontent.index.AvailabilityIndex;
+import kz.aitu.digitalcontent.index.ContentNameIndex;
+import kz.aitu.digitalcontent.index.EmailFilter;
+import kz.aitu.digitalcontent.metrics.RepositoryMetrics;
+import kz.aitu.digitalcontent.patterns.DatabaseConfig;
+import kz.aitu.digitalcontent.patterns.LoggerService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Operational stats; not part of the public API
+@RestController
+@RequestMapping("/internal")
+public class InternalController {
+
+    private final ContentNameIndex nameIndex;
+    private final ContentCache contentCache;
+    private final EmailFilter emailFilter;
+    private final AvailabilityIndex availability;
+    private final ResponseByteCache responseCache;
+    private final RepositoryMetrics repositoryMetrics;
+
+    @Autowired
+    public InternalController(ContentNameIndex nameIndex, ContentCache contentCache, EmailFilter emailFilter,
+                              AvailabilityIndex availability, ResponseByteCache responseCache,
+                              RepositoryMetrics repositoryMetrics) {
+        this.nameIndex = nameIndex;
+        this.contentCache = contentCache;
+        this.emailFilter = emailFilter;
+        this.availability = availability;
+        this.responseCache = responseCache;
+        this.repositoryMetrics = repositoryMetrics;
+    }
+
+    @GetMapping("/cache")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        return ResponseEntity.ok(contentCache.getStats());
+    }
+
+    @GetMapping("/response-cache")
+    public ResponseEntity<Map<String, Object>> getResponseCacheStats() {
+        return ResponseEntity.ok(responseCache.getStats());
+    }
+
+    @GetMapping("/search-index")
+    public ResponseEntity<Map<String, Object>> getSearchIndexStats() {
+        return ResponseEntity.ok(nameIndex.getStats());
+    }
+
+    @GetMapping("/email-filter")
+    public ResponseEntity<Map<String, Object>> getEmailFilterStats() {
+        return ResponseEntity.ok(emailFilter.getStats());
+    }
+
+    @GetMapping("/availability")
+    public ResponseEntity<Map<String, Object>> getAvailabilityStats() {
+        return ResponseEntity.ok(availability.getStats());
+    }
+
+    @GetMapping("/pool")
+    public ResponseEntity<Map<String, Object>> getPoolStats() {
+        return ResponseEntity.ok(DatabaseConfig.getInstance().getPoolStats());
+    }
+
+    // Latency percentiles per repository method and for connection checkout
+    @GetMapping("/metrics")
+    public ResponseEntity<Map<String, Object>> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("repositories", repositoryMetrics.getStats());
+        metrics.put("connectionAcquire", DatabaseConfig.getInstance().getAcquireStats());
+        return ResponseEntity.ok(metrics);
+    }
+
+    @GetMapping("/logger")
+    public ResponseEntity<Map<String, Object>> getLoggerStats() {
+        return ResponseEntity.ok(LoggerService.getInstance().getStats());
+    }
+}
@@ -1,13 +1,19 @@
 package kz.aitu.digitalcontent.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import kz.aitu.digitalcontent.dto.PageDTO;
+import kz.aitu.digitalcontent.dto.PurchaseAckDTO;
 import kz.aitu.digitalcontent.model.Purchase;
 import kz.aitu.digitalcontent.service.PurchaseService;
+import kz.aitu.digitalcontent.utils.JsonStreamingUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/purchases")
@@ -15,15 +21,25 @@ import java.util.List;
 public class PurchaseController {
 
     private final PurchaseService service;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public PurchaseController(PurchaseService service) {
+    public PurchaseController(PurchaseService service, ObjectMapper objectMapper) {
         this.service = service;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping
-    public ResponseEntity<List<Purchase>> getAllPurchases() {
-        return ResponseEntity.ok(service.getAllPurchases());
+    public ResponseEntity<?> getAllPurchases(@RequestParam(required = false) String after,
+                                             @RequestParam(required = false) Integer limit) {
+        if (after != null || limit != null) {
+            PageDTO<Purchase> page = service.getPurchasePage(after, limit);
+            return ResponseEntity.ok(page);
+        }
+
+        StreamingResponseBody body = JsonStreamingUtils.<Purchase>jsonArray(objectMapper,
+                service::streamAllPurchases);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
 
     @GetMapping("/{id}")
@@ -32,12 +48,30 @@ public class PurchaseController {
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Purchase>> getPurchasesByUserId(@PathVariable int userId) {
+    public ResponseEntity<?> getPurchasesByUserId(@PathVariable int userId,
+                                                  @RequestParam(required = false) String after,
+                                                  @RequestParam(required = false) Integer limit) {
+        if (after != null || limit != null) {
+            return ResponseEntity.ok(service.getPurchasePageByUserId(userId, after, limit));
+        }
         return ResponseEntity.ok(service.getPurchasesByUserId(userId));
     }
 
     @PostMapping
-    public ResponseEntity<Purchase> createPurchase(@RequestBody Purchase purchase) {
+    public ResponseEntity<?> createPurchase(@RequestBody Purchase purchase,
+                                            @RequestParam(defaultValue = "true") boolean wait) {
+        if (!wait) {
+            // Accepted for write-behind; the id is assigned when the batch is flushed, so the
+            // body is a snapshot rather than the purchase the flusher will go on to modify
+            PurchaseAckDTO ack = PurchaseAckDTO.of(purchase);
+            CompletableFuture<Purchase> result = service.submitPurchase(purchase);
+            if (!result.isDone()) {
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body(ack);
+            }
+            // Already committed (write-behind off, or the flush beat us): report it as created
+            return ResponseEntity.status(HttpStatus.CREATED).body(service.awaitDurable(result));
+        }
+
         Purchase created = service.createPurchase(purchase);
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
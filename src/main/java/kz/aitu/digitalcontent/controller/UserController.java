@@ -1,13 +1,16 @@
 package kz.aitu.digitalcontent.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import kz.aitu.digitalcontent.dto.PageDTO;
 import kz.aitu.digitalcontent.model.User;
 import kz.aitu.digitalcontent.service.UserService;
+import kz.aitu.digitalcontent.utils.JsonStreamingUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/users")
@@ -15,15 +18,25 @@ import java.util.List;
 public class UserController {
 
     private final UserService service;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public UserController(UserService service) {
+    public UserController(UserService service, ObjectMapper objectMapper) {
         this.service = service;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping
-    public ResponseEntity<List<User>> getAllUsers() {
-        return ResponseEntity.ok(service.getAllUsers());
+    public ResponseEntity<?> getAllUsers(@RequestParam(required = false) String after,
+                                         @RequestParam(required = false) Integer limit) {
+        if (after != null || limit != null) {
+            PageDTO<User> page = service.getUserPage(after, limit);
+            return ResponseEntity.ok(page);
+        }
+
+        StreamingResponseBody body = JsonStreamingUtils.<User>jsonArray(objectMapper,
+                service::streamAllUsers);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
 
     @GetMapping("/{id}")
@@ -0,0 +1,71 @@
+package kz.aitu.digitalcontent.dto;
+
+import kz.aitu.digitalcontent.exception.InvalidInputException;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+// Fields a client can ask for with ?fields=..., and the column behind each one
+public enum ContentField {
+    ID("id", "id"),
+    NAME("name", "name"),
+    RELEASE_YEAR("releaseYear", "release_year"),
+    AVAILABLE("available", "available"),
+    CONTENT_TYPE("contentType", "content_type"),
+    DESCRIPTION("description", "description"),
+    CREATOR_COUNTRY("creatorCountry", "creator_country"),
+    CREATOR_BIO("creatorBio", "creator_bio"),
+    RENTABLE("rentable", "rentable"),
+    DURATION_MINUTES("durationMinutes", "duration_minutes"),
+    TRACK_COUNT("trackCount", "track_count");
+
+    private final String jsonName;
+    private final String column;
+
+    ContentField(String jsonName, String column) {
+        this.jsonName = jsonName;
+        this.column = column;
+    }
+
+    public String getJsonName() {
+        return jsonName;
+    }
+
+    public String getColumn() {
+        return column;
+    }
+
+    // The id is always included so paging cursors keep working
+    public static Set<ContentField> parse(String fields) {
+        Set<ContentField> selected = new LinkedHashSet<>();
+        selected.add(ID);
+
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            selected.add(fromJsonName(trimmed));
+        }
+        return selected;
+    }
+
+    public static Map<String, Object> select(Map<String, Object> values, Set<ContentField> fields) {
+        Map<String, Object> selected = new LinkedHashMap<>();
+        for (ContentField field : fields) {
+            selected.put(field.jsonName, values.get(field.jsonName));
+        }
+        return selected;
+    }
+
+    private static ContentField fromJsonName(String jsonName) {
+        for (ContentField field : values()) {
+            if (field.jsonName.equals(jsonName)) {
+                return field;
+            }
+        }
+        throw new InvalidInputException("Unknown field: " + jsonName);
+    }
+}
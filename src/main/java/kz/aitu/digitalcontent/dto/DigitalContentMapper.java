@@ -0,0 +1,68 @@
+package kz.aitu.digitalcontent.dto;
+
+import kz.aitu.digitalcontent.model.*;
+import kz.aitu.digitalcontent.patterns.DigitalContentFactory;
+
+// Shared by the servlet and reactive controllers
+public class DigitalContentMapper {
+
+    public static DigitalContentDTO toDTO(DigitalContent content) {
+        DigitalContentDTO dto = new DigitalContentDTO();
+        dto.setId(content.getId());
+        dto.setName(content.getName());
+        dto.setReleaseYear(content.getReleaseYear());
+        dto.setAvailable(content.isAvailable());
+        dto.setContentType(content.getEntityType());
+        dto.setDescription(content.getDescription());
+
+        if (content.getCreator() != null) {
+            dto.setCreatorCountry(content.getCreator().getCountry());
+            dto.setCreatorBio(content.getCreator().getBio());
+        }
+
+        if (content instanceof Movie) {
+            Movie movie = (Movie) content;
+            dto.setRentable(movie.isRentable());
+            dto.setDurationMinutes(movie.getDurationMinutes());
+        } else if (content instanceof MusicAlbum) {
+            MusicAlbum album = (MusicAlbum) content;
+            dto.setTrackCount(album.getCountTracks());
+        }
+
+        return dto;
+    }
+
+    public static DigitalContent toEntity(DigitalContentDTO dto) {
+        Creator creator = new Creator(dto.getCreatorCountry(), dto.getCreatorBio());
+
+        DigitalContent content;
+
+        switch (dto.getContentType().toUpperCase()) {
+            case "MOVIE":
+                content = DigitalContentFactory.createMovie(
+                        dto.getId(), dto.getName(), dto.getReleaseYear(),
+                        dto.isAvailable(), creator, dto.getDescription(),
+                        dto.getRentable() != null ? dto.getRentable() : false,
+                        dto.getDurationMinutes() != null ? dto.getDurationMinutes() : 0
+                );
+                break;
+
+            case "MUSIC_ALBUM":
+            case "ALBUM":
+                content = DigitalContentFactory.createMusicAlbum(
+                        dto.getId(), dto.getName(), dto.getReleaseYear(),
+                        dto.isAvailable(), creator, dto.getDescription(),
+                        dto.getTrackCount() != null ? dto.getTrackCount() : 0
+                );
+                break;
+
+            default:
+                content = DigitalContentFactory.createContent(
+                        "GAME", dto.getId(), dto.getName(), dto.getReleaseYear(),
+                        dto.isAvailable(), creator, dto.getDescription()
+                );
+        }
+
+        return content;
+    }
+}
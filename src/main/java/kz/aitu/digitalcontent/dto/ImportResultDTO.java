@@ -0,0 +1,45 @@
+package kz.aitu.digitalcontent.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ImportResultDTO {
+    private static final int MAX_ERRORS = 20;
+
+    private long accepted;
+    private long rejected;
+    private List<String> errors = new ArrayList<>();
+
+    public ImportResultDTO() {}
+
+    public void addRejection(int recordNumber, String reason) {
+        rejected++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add("Record " + recordNumber + ": " + reason);
+        }
+    }
+
+    public long getAccepted() {
+        return accepted;
+    }
+
+    public void setAccepted(long accepted) {
+        this.accepted = accepted;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<String> errors) {
+        this.errors = errors;
+    }
+}
@@ -0,0 +1,64 @@
+package kz.aitu.digitalcontent.dto;
+
+import kz.aitu.digitalcontent.utils.PageCursor;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+
+public class PageDTO<T> {
+    private List<T> items;
+    private String nextCursor;
+    private int limit;
+
+    public PageDTO() {}
+
+    public PageDTO(List<T> items, String nextCursor, int limit) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.limit = limit;
+    }
+
+    // Repositories fetch limit + 1 rows; the extra row only tells us another page exists
+    public static <T> PageDTO<T> fromRows(List<T> rows, int limit, ToIntFunction<T> idOf) {
+        if (rows.size() <= limit) {
+            return new PageDTO<>(rows, null, limit);
+        }
+
+        List<T> items = rows.subList(0, limit);
+        String nextCursor = PageCursor.encode(idOf.applyAsInt(items.get(limit - 1)));
+        return new PageDTO<>(items, nextCursor, limit);
+    }
+
+    public <R> PageDTO<R> map(Function<T, R> mapper) {
+        List<R> mapped = items.stream()
+                .map(mapper)
+                .collect(Collectors.toList());
+        return new PageDTO<>(mapped, nextCursor, limit);
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+}
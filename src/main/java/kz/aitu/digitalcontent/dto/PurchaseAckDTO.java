@@ -0,0 +1,48 @@
+package kz.aitu.digitalcontent.dto;
+
+import kz.aitu.digitalcontent.model.Purchase;
+
+import java.time.LocalDate;
+
+// Body of a 202 for a queued purchase. It is a snapshot taken before the purchase is
+// queued, so the flusher assigning the id later never races with serialization.
+public class PurchaseAckDTO {
+    private static final String STATUS_QUEUED = "QUEUED";
+
+    private final int userId;
+    private final int contentId;
+    private final LocalDate purchaseDate;
+    private final double pricePaid;
+
+    public PurchaseAckDTO(int userId, int contentId, LocalDate purchaseDate, double pricePaid) {
+        this.userId = userId;
+        this.contentId = contentId;
+        this.purchaseDate = purchaseDate;
+        this.pricePaid = pricePaid;
+    }
+
+    public static PurchaseAckDTO of(Purchase purchase) {
+        return new PurchaseAckDTO(purchase.getUserId(), purchase.getContentId(),
+                purchase.getPurchaseDate(), purchase.getPricePaid());
+    }
+
+    public String getStatus() {
+        return STATUS_QUEUED;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public int getContentId() {
+        return contentId;
+    }
+
+    public LocalDate getPurchaseDate() {
+        return purchaseDate;
+    }
+
+    public double getPricePaid() {
+        return pricePaid;
+    }
+}
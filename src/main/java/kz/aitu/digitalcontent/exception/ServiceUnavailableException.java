@@ -0,0 +1,8 @@
+package kz.aitu.digitalcontent.exception;
+
+public class ServiceUnavailableException extends RuntimeException {
+
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,168 @@
+package kz.aitu.digitalcontent.index;
+
+import jakarta.annotation.PreDestroy;
+import kz.aitu.digitalcontent.dto.ContentField;
+import kz.aitu.digitalcontent.patterns.LoggerService;
+import kz.aitu.digitalcontent.repository.DigitalContentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Bitmap of available content ids (bit n set = content n is available). With
+// SERIAL ids it costs about one bit per row ever created, and the next page of
+// available ids is a handful of nextSetBit() calls.
+//
+// Writes made through this instance update the bitmap at once. A row made available by
+// another instance, the reactive app or plain SQL has no bit until the next rebuild, which
+// runs every content.availability.rebuild-interval-seconds and so bounds how long such a
+// row can be missing from the paged listing. (A stale set bit costs nothing: the service
+// checks every row it loads.)
+@Component
+public class AvailabilityIndex {
+
+    private final DigitalContentRepository repository;
+    private final LoggerService logger = LoggerService.getInstance();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final long rebuildIntervalSeconds;
+    private ScheduledExecutorService rebuilder;
+
+    private BitSet available = new BitSet();
+    private volatile boolean ready;
+    // While a rebuild scans, writes are also recorded here and replayed onto the
+    // scanned bitmap before it replaces the live one
+    private Map<Integer, Boolean> pendingWrites;
+
+    @Autowired
+    public AvailabilityIndex(DigitalContentRepository repository,
+                             @Value("${content.availability.rebuild-interval-seconds:60}") long rebuildIntervalSeconds) {
+        this.repository = repository;
+        this.rebuildIntervalSeconds = rebuildIntervalSeconds;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildAsync() {
+        if (rebuildIntervalSeconds <= 0) {
+            Thread builder = new Thread(this::rebuild, "availability-index");
+            builder.setDaemon(true);
+            builder.start();
+            return;
+        }
+
+        rebuilder = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "availability-index");
+            thread.setDaemon(true);
+            return thread;
+        });
+        rebuilder.scheduleWithFixedDelay(this::rebuild, 0, rebuildIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stopRebuilder() {
+        if (rebuilder != null) {
+            rebuilder.shutdownNow();
+        }
+    }
+
+    // One build at a time, so the pending writes belong to exactly one scan
+    public synchronized void rebuild() {
+        BitSet bits = new BitSet();
+        setPendingWrites(new HashMap<>());
+
+        try {
+            repository.streamProjectedFromPrimary(EnumSet.of(ContentField.ID), true,
+                    row -> bits.set((Integer) row.get(ContentField.ID.getJsonName())));
+        } catch (RuntimeException e) {
+            setPendingWrites(null);
+            logger.error("Availability index not built, available content is read from the database: {}",
+                    e.getMessage());
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (Map.Entry<Integer, Boolean> write : pendingWrites.entrySet()) {
+                bits.set(write.getKey(), write.getValue());
+            }
+            pendingWrites = null;
+            available = bits;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        logger.info("Availability index built: {} available items", bits.cardinality());
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void set(int id, boolean isAvailable) {
+        lock.writeLock().lock();
+        try {
+            available.set(id, isAvailable);
+            if (pendingWrites != null) {
+                pendingWrites.put(id, isAvailable);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear(int id) {
+        set(id, false);
+    }
+
+    // Up to limit available ids greater than afterId, ascending
+    public int[] idsAfter(int afterId, int limit) {
+        int[] ids = new int[limit];
+        int count = 0;
+
+        lock.readLock().lock();
+        try {
+            for (int id = available.nextSetBit(afterId + 1); id >= 0 && count < limit;
+                 id = available.nextSetBit(id + 1)) {
+                ids[count++] = id;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return count == limit ? ids : Arrays.copyOf(ids, count);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        lock.readLock().lock();
+        try {
+            stats.put("ready", ready);
+            stats.put("availableCount", available.cardinality());
+            stats.put("bitmapBytes", available.size() / 8);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return stats;
+    }
+
+    private void setPendingWrites(Map<Integer, Boolean> writes) {
+        lock.writeLock().lock();
+        try {
+            pendingWrites = writes;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
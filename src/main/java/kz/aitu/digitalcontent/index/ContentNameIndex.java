@@ -0,0 +1,271 @@
+package kz.aitu.digitalcontent.index;
+
+import kz.aitu.digitalcontent.dto.ContentField;
+import kz.aitu.digitalcontent.model.DigitalContent;
+import kz.aitu.digitalcontent.patterns.LoggerService;
+import kz.aitu.digitalcontent.repository.DigitalContentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-memory trigram index over content names for substring search. Every
+// lowercased name is split into 3-character grams; each gram maps to the sorted
+// ids of the names containing it. A query walks the shortest list among its own
+// grams and checks each candidate's name with contains(). Only ids and lowercased
+// names are kept; callers load the rows themselves.
+//
+// The index is built in the background once the application is ready. Until
+// then (or if the database was unreachable) isReady() is false and callers
+// should search in the database instead. Each instance keeps its own copy, so
+// writes made through another instance show up here only after rebuild().
+@Component
+public class ContentNameIndex {
+
+    private final DigitalContentRepository repository;
+    private final LoggerService logger = LoggerService.getInstance();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Grams grams = new Grams();
+
+    private volatile boolean ready;
+    // While a rebuild scans, writes are also recorded here (null name = removed) and
+    // replayed onto the new index before it replaces the live one
+    private Map<Integer, String> pendingWrites;
+
+    private final LongAdder queryCount = new LongAdder();
+    private final LongAdder queryTotalNanos = new LongAdder();
+    private final AtomicLong queryMaxNanos = new AtomicLong();
+    private volatile long lastBuildMillis;
+
+    @Autowired
+    public ContentNameIndex(DigitalContentRepository repository) {
+        this.repository = repository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildAsync() {
+        Thread builder = new Thread(this::rebuild, "content-name-index");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    // One build at a time, so the pending writes belong to exactly one scan
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        Grams newGrams = new Grams();
+
+        lock.writeLock().lock();
+        try {
+            pendingWrites = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            repository.streamProjectedFromPrimary(EnumSet.of(ContentField.ID, ContentField.NAME), false,
+                    row -> newGrams.add((Integer) row.get("id"), (String) row.get("name")));
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingWrites = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.error("Content name index not built, search falls back to the database: {}", e.getMessage());
+            return;
+        }
+
+        long bytes;
+        int size;
+        lock.writeLock().lock();
+        try {
+            for (Map.Entry<Integer, String> write : pendingWrites.entrySet()) {
+                newGrams.remove(write.getKey());
+                if (write.getValue() != null) {
+                    newGrams.add(write.getKey(), write.getValue());
+                }
+            }
+            pendingWrites = null;
+            grams = newGrams;
+            ready = true;
+            bytes = newGrams.estimatedBytes();
+            size = newGrams.names.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        lastBuildMillis = (System.nanoTime() - start) / 1_000_000;
+        logger.info(() -> "Content name index built: " + size + " names, "
+                + newGrams.postings.size() + " trigrams, ~" + bytes / 1024 + " KB in "
+                + lastBuildMillis + " ms");
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void put(DigitalContent content) {
+        String name = content.getName() == null ? "" : content.getName();
+        lock.writeLock().lock();
+        try {
+            grams.remove(content.getId());
+            grams.add(content.getId(), name);
+            if (pendingWrites != null) {
+                pendingWrites.put(content.getId(), name);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            grams.remove(id);
+            if (pendingWrites != null) {
+                pendingWrites.put(id, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Ids of the names containing the keyword (case-insensitive), in id order
+    public int[] search(String keyword, int limit) {
+        long start = System.nanoTime();
+        String needle = keyword.toLowerCase(Locale.ROOT);
+        int[] results = new int[Math.min(limit, 64)];
+        int count = 0;
+
+        lock.readLock().lock();
+        try {
+            PostingList candidates = needle.length() < 3 ? grams.allIds : grams.shortestList(needle);
+            if (candidates == null) {
+                return new int[0];
+            }
+
+            for (int i = 0; i < candidates.size() && count < limit; i++) {
+                int id = candidates.get(i);
+                // The grams may come from different places in the name, so confirm the match
+                if (grams.names.get(id).contains(needle)) {
+                    if (count == results.length) {
+                        results = Arrays.copyOf(results, Math.min(limit, count * 2));
+                    }
+                    results[count++] = id;
+                }
+            }
+            return Arrays.copyOf(results, count);
+        } finally {
+            lock.readLock().unlock();
+            recordQuery(System.nanoTime() - start);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long count = queryCount.sum();
+
+        lock.readLock().lock();
+        try {
+            stats.put("ready", ready);
+            stats.put("names", grams.names.size());
+            stats.put("trigrams", grams.postings.size());
+            stats.put("estimatedBytes", grams.estimatedBytes());
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        stats.put("lastBuildMillis", lastBuildMillis);
+        stats.put("queryCount", count);
+        stats.put("queryAvgMicros", count > 0 ? queryTotalNanos.sum() / count / 1_000.0 : 0.0);
+        stats.put("queryMaxMicros", queryMaxNanos.get() / 1_000.0);
+        return stats;
+    }
+
+    private static long trigram(String text, int offset) {
+        return ((long) text.charAt(offset) << 32)
+                | ((long) text.charAt(offset + 1) << 16)
+                | text.charAt(offset + 2);
+    }
+
+    private void recordQuery(long nanos) {
+        queryCount.increment();
+        queryTotalNanos.add(nanos);
+        queryMaxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    // The index proper; a rebuild fills a fresh one and swaps it in
+    private static class Grams {
+        private final Map<Long, PostingList> postings = new HashMap<>();
+        private final Map<Integer, String> names = new HashMap<>();
+        private final PostingList allIds = new PostingList();
+
+        void add(int id, String name) {
+            String lower = name == null ? "" : name.toLowerCase(Locale.ROOT);
+            names.put(id, lower);
+            allIds.add(id);
+            for (int i = 0; i + 3 <= lower.length(); i++) {
+                postings.computeIfAbsent(trigram(lower, i), key -> new PostingList()).add(id);
+            }
+        }
+
+        void remove(int id) {
+            String name = names.remove(id);
+            if (name == null) {
+                return;
+            }
+
+            allIds.remove(id);
+            for (int i = 0; i + 3 <= name.length(); i++) {
+                Long key = trigram(name, i);
+                PostingList list = postings.get(key);
+                if (list != null) {
+                    list.remove(id);
+                    if (list.isEmpty()) {
+                        postings.remove(key);
+                    }
+                }
+            }
+        }
+
+        // Walking the rarest gram's list keeps the candidate set as small as possible
+        PostingList shortestList(String needle) {
+            PostingList shortest = null;
+            for (int i = 0; i + 3 <= needle.length(); i++) {
+                PostingList list = postings.get(trigram(needle, i));
+                if (list == null) {
+                    return null;
+                }
+                if (shortest == null || list.size() < shortest.size()) {
+                    shortest = list;
+                }
+            }
+            return shortest;
+        }
+
+        long estimatedBytes() {
+            long bytes = 0;
+            for (PostingList list : postings.values()) {
+                // HashMap node + boxed key + the list itself
+                bytes += 32 + 24 + list.estimatedBytes();
+            }
+            for (String name : names.values()) {
+                // HashMap node + boxed id + String + its byte[]
+                bytes += 32 + 16 + 24 + 16 + name.length();
+            }
+            return bytes + allIds.estimatedBytes();
+        }
+    }
+}
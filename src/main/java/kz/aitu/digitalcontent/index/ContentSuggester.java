@@ -0,0 +1,441 @@
+package kz.aitu.digitalcontent.index;
+
+import jakarta.annotation.PreDestroy;
+import kz.aitu.digitalcontent.dto.ContentField;
+import kz.aitu.digitalcontent.model.DigitalContent;
+import kz.aitu.digitalcontent.patterns.LoggerService;
+import kz.aitu.digitalcontent.repository.DigitalContentRepository;
+import kz.aitu.digitalcontent.repository.PurchaseRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.StampedLock;
+
+// Prefix autocomplete over content names. A trie keyed on lowercased names keeps,
+// at every node, the top-k names below it ranked by purchase count, so a lookup
+// is a walk down the prefix plus a copy of one precomputed list.
+//
+// Lookups take an optimistic StampedLock read and only fall back to a real read
+// lock when a writer got in the way. Writes (create, rename, delete, purchase)
+// re-rank just the nodes on the affected name's path. Writes made while rebuild()
+// scans the database are queued and replayed onto the new trie before the swap.
+// Only writes made through this instance are seen as they happen; purchases removed by
+// a user-delete cascade, by other instances or by plain SQL are picked up by the
+// periodic rebuild (suggest.rebuild-interval-seconds).
+@Component
+public class ContentSuggester {
+
+    private static final char[] EMPTY_CHARS = new char[0];
+    private static final Node[] EMPTY_NODES = new Node[0];
+    private static final int[] EMPTY_INTS = new int[0];
+    private static final String[] EMPTY_STRINGS = new String[0];
+
+    private final DigitalContentRepository contentRepository;
+    private final PurchaseRepository purchaseRepository;
+    private final LoggerService logger = LoggerService.getInstance();
+    private final StampedLock lock = new StampedLock();
+    private final int topK;
+    private final long rebuildIntervalSeconds;
+    private ScheduledExecutorService rebuilder;
+
+    private Node root = new Node();
+    private Map<Integer, String> names = new HashMap<>();
+    private Map<Integer, Integer> purchaseCounts = new HashMap<>();
+    private volatile boolean ready;
+    // While a rebuild is running, writes are also queued here and replayed onto the new trie
+    // before it replaces the live one
+    private List<Runnable> pendingWrites;
+
+    @Autowired
+    public ContentSuggester(DigitalContentRepository contentRepository,
+                            PurchaseRepository purchaseRepository,
+                            @Value("${suggest.top-k:10}") int topK,
+                            @Value("${suggest.rebuild-interval-seconds:600}") long rebuildIntervalSeconds) {
+        this.contentRepository = contentRepository;
+        this.purchaseRepository = purchaseRepository;
+        this.topK = topK;
+        this.rebuildIntervalSeconds = rebuildIntervalSeconds;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildAsync() {
+        if (rebuildIntervalSeconds <= 0) {
+            Thread builder = new Thread(this::rebuild, "content-suggester");
+            builder.setDaemon(true);
+            builder.start();
+            return;
+        }
+
+        rebuilder = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "content-suggester");
+            thread.setDaemon(true);
+            return thread;
+        });
+        rebuilder.scheduleWithFixedDelay(this::rebuild, 0, rebuildIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stopRebuilder() {
+        if (rebuilder != null) {
+            rebuilder.shutdownNow();
+        }
+    }
+
+    // One build at a time, so the queued writes belong to exactly one scan
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        Map<Integer, String> newNames = new HashMap<>();
+        Map<Integer, Integer> newCounts;
+
+        setPendingWrites(new ArrayList<>());
+        try {
+            newCounts = purchaseRepository.countByContent();
+            contentRepository.streamProjectedFromPrimary(EnumSet.of(ContentField.ID, ContentField.NAME), false,
+                    row -> newNames.put((Integer) row.get(ContentField.ID.getJsonName()),
+                            (String) row.get(ContentField.NAME.getJsonName())));
+        } catch (RuntimeException e) {
+            setPendingWrites(null);
+            logger.error("Suggestion trie not built, suggestions come from the database: {}", e.getMessage());
+            return;
+        }
+
+        // Insert every name first, then rank the whole trie in one bottom-up pass, off the lock
+        Node newRoot = new Node();
+        for (Map.Entry<Integer, String> entry : newNames.entrySet()) {
+            String key = normalize(entry.getValue());
+            pathFor(newRoot, key, true)[key.length()].addTerminal(entry.getKey());
+        }
+        rankSubtree(newRoot, newNames, newCounts);
+
+        long stamp = lock.writeLock();
+        try {
+            names = newNames;
+            purchaseCounts = newCounts;
+            root = newRoot;
+            // Writes made since the scan started, in order. A purchase added or removed just before
+            // the count query but reported after the rebuild began is applied twice; ranking
+            // tolerates it and the next rebuild corrects it.
+            for (Runnable write : pendingWrites) {
+                write.run();
+            }
+            pendingWrites = null;
+            ready = true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+
+        logger.info("Suggestion trie built: {} names in {} ms",
+                newNames.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int getTopK() {
+        return topK;
+    }
+
+    // Allocates nothing but the returned list: the prefix is folded to lower case char by char
+    public List<String> suggest(String prefix, int limit) {
+        List<String> results = new ArrayList<>(Math.min(limit, topK));
+
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                collect(prefix, limit, results);
+                if (lock.validate(stamp)) {
+                    return results;
+                }
+            } catch (RuntimeException e) {
+                // A concurrent write left the arrays half-updated; retry under the read lock
+            }
+            results.clear();
+        }
+
+        stamp = lock.readLock();
+        try {
+            collect(prefix, limit, results);
+            return results;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public void put(DigitalContent content) {
+        int id = content.getId();
+        String name = content.getName();
+        write(() -> putName(id, name));
+    }
+
+    public void remove(int id) {
+        write(() -> removeName(id));
+    }
+
+    public void recordPurchase(int contentId) {
+        write(() -> addPurchase(contentId));
+    }
+
+    public void recordPurchaseRemoved(int contentId) {
+        write(() -> removePurchase(contentId));
+    }
+
+    private void write(Runnable write) {
+        long stamp = lock.writeLock();
+        try {
+            write.run();
+            if (pendingWrites != null) {
+                pendingWrites.add(write);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private void setPendingWrites(List<Runnable> writes) {
+        long stamp = lock.writeLock();
+        try {
+            pendingWrites = writes;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // The writes below run under the write lock, against whichever trie is live
+    private void putName(int id, String name) {
+        String oldName = names.put(id, name);
+        if (oldName != null) {
+            if (oldName.equals(name)) {
+                return;
+            }
+            detach(id, oldName);
+        }
+        String key = normalize(name);
+        Node[] path = pathFor(root, key, true);
+        path[key.length()].addTerminal(id);
+        rankPath(path);
+    }
+
+    private void removeName(int id) {
+        String oldName = names.remove(id);
+        if (oldName != null) {
+            detach(id, oldName);
+        }
+        purchaseCounts.remove(id);
+    }
+
+    private void addPurchase(int contentId) {
+        purchaseCounts.merge(contentId, 1, Integer::sum);
+        String name = names.get(contentId);
+        if (name != null) {
+            rankPath(pathFor(root, normalize(name), false));
+        }
+    }
+
+    private void removePurchase(int contentId) {
+        Integer count = purchaseCounts.get(contentId);
+        if (count == null) {
+            return;
+        }
+        if (count > 1) {
+            purchaseCounts.put(contentId, count - 1);
+        } else {
+            purchaseCounts.remove(contentId);
+        }
+        String name = names.get(contentId);
+        if (name != null) {
+            rankPath(pathFor(root, normalize(name), false));
+        }
+    }
+
+    private void collect(String prefix, int limit, List<String> results) {
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.child(Character.toLowerCase(prefix.charAt(i)));
+        }
+        if (node == null) {
+            return;
+        }
+
+        String[] topNames = node.topNames;
+        int count = Math.min(limit, node.topSize);
+        for (int i = 0; i < count; i++) {
+            results.add(topNames[i]);
+        }
+    }
+
+    private void detach(int id, String name) {
+        String key = normalize(name);
+        Node[] path = pathFor(root, key, false);
+        if (path[key.length()] != null) {
+            path[key.length()].removeTerminal(id);
+            rankPath(path);
+        }
+    }
+
+    // path[i] is the node reached after i characters; missing nodes stay null unless create is set
+    private static Node[] pathFor(Node root, String key, boolean create) {
+        Node[] path = new Node[key.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < key.length() && path[i] != null; i++) {
+            Node next = path[i].child(key.charAt(i));
+            if (next == null && create) {
+                next = path[i].addChild(key.charAt(i));
+            }
+            path[i + 1] = next;
+        }
+        return path;
+    }
+
+    private void rankPath(Node[] path) {
+        for (int i = path.length - 1; i >= 0; i--) {
+            if (path[i] != null) {
+                rank(path[i], names, purchaseCounts);
+            }
+        }
+    }
+
+    private void rankSubtree(Node node, Map<Integer, String> names, Map<Integer, Integer> counts) {
+        for (int i = 0; i < node.childCount; i++) {
+            rankSubtree(node.children[i], names, counts);
+        }
+        rank(node, names, counts);
+    }
+
+    // Top-k merge of the names ending here with the children's lists. Each child list is already
+    // ranked (with its counts alongside), so only the list heads compete for each slot; the few
+    // names ending at this node are looked up once and picked by selection.
+    private void rank(Node node, Map<Integer, String> names, Map<Integer, Integer> counts) {
+        int terminalCount = node.terminalCount;
+        int[] terminalCounts = new int[terminalCount];
+        boolean[] terminalTaken = new boolean[terminalCount];
+        int available = terminalCount;
+        for (int i = 0; i < terminalCount; i++) {
+            terminalCounts[i] = counts.getOrDefault(node.terminals[i], 0);
+        }
+        for (int i = 0; i < node.childCount; i++) {
+            available += node.children[i].topSize;
+        }
+        int[] heads = new int[node.childCount];
+
+        int size = Math.min(topK, available);
+        int[] topIds = size == 0 ? EMPTY_INTS : new int[size];
+        int[] topCounts = size == 0 ? EMPTY_INTS : new int[size];
+        String[] topNames = size == 0 ? EMPTY_STRINGS : new String[size];
+        for (int slot = 0; slot < size; slot++) {
+            int bestId = 0;
+            int bestCount = -1;
+            int bestChild = -1;
+            int bestTerminal = -1;
+
+            for (int c = 0; c < node.childCount; c++) {
+                Node child = node.children[c];
+                int head = heads[c];
+                if (head < child.topSize && ranksBefore(child.topCounts[head], child.topIds[head], bestCount, bestId)) {
+                    bestId = child.topIds[head];
+                    bestCount = child.topCounts[head];
+                    bestChild = c;
+                }
+            }
+            for (int t = 0; t < terminalCount; t++) {
+                if (!terminalTaken[t] && ranksBefore(terminalCounts[t], node.terminals[t], bestCount, bestId)) {
+                    bestId = node.terminals[t];
+                    bestCount = terminalCounts[t];
+                    bestTerminal = t;
+                }
+            }
+
+            topIds[slot] = bestId;
+            topCounts[slot] = bestCount;
+            if (bestTerminal >= 0) {
+                terminalTaken[bestTerminal] = true;
+                topNames[slot] = names.get(bestId);
+            } else {
+                topNames[slot] = node.children[bestChild].topNames[heads[bestChild]++];
+            }
+        }
+
+        // Plain fields, so an optimistic reader may see topSize from one ranking and the arrays
+        // from another. What keeps it safe is suggest(): validate() fails after any write, and an
+        // index past the end of a stale array is caught and retried under the read lock.
+        node.topIds = topIds;
+        node.topCounts = topCounts;
+        node.topNames = topNames;
+        node.topSize = size;
+    }
+
+    // Most purchased first, then lowest id
+    private static boolean ranksBefore(int count, int id, int otherCount, int otherId) {
+        return count > otherCount || (count == otherCount && id < otherId);
+    }
+
+    private static String normalize(String name) {
+        return name == null ? "" : name.toLowerCase(Locale.ROOT);
+    }
+
+    // Children are kept in parallel arrays sorted by character, which is far smaller than a map per node.
+    // Every array is replaced rather than grown in place, so new nodes can share the empty ones.
+    private static class Node {
+        private char[] keys = EMPTY_CHARS;
+        private Node[] children = EMPTY_NODES;
+        private int childCount;
+
+        private int[] terminals = EMPTY_INTS;
+        private int terminalCount;
+
+        private int[] topIds = EMPTY_INTS;
+        private int[] topCounts = EMPTY_INTS;
+        private String[] topNames = EMPTY_STRINGS;
+        private int topSize;
+
+        Node child(char c) {
+            int pos = Arrays.binarySearch(keys, 0, childCount, c);
+            return pos >= 0 ? children[pos] : null;
+        }
+
+        Node addChild(char c) {
+            int insertAt = -Arrays.binarySearch(keys, 0, childCount, c) - 1;
+            char[] newKeys = new char[childCount + 1];
+            Node[] newChildren = new Node[childCount + 1];
+            System.arraycopy(keys, 0, newKeys, 0, insertAt);
+            System.arraycopy(children, 0, newChildren, 0, insertAt);
+            System.arraycopy(keys, insertAt, newKeys, insertAt + 1, childCount - insertAt);
+            System.arraycopy(children, insertAt, newChildren, insertAt + 1, childCount - insertAt);
+
+            Node child = new Node();
+            newKeys[insertAt] = c;
+            newChildren[insertAt] = child;
+            children = newChildren;
+            keys = newKeys;
+            childCount++;
+            return child;
+        }
+
+        void addTerminal(int id) {
+            terminals = Arrays.copyOf(terminals, terminalCount + 1);
+            terminals[terminalCount++] = id;
+        }
+
+        void removeTerminal(int id) {
+            for (int i = 0; i < terminalCount; i++) {
+                if (terminals[i] == id) {
+                    terminals[i] = terminals[--terminalCount];
+                    return;
+                }
+            }
+        }
+    }
+}
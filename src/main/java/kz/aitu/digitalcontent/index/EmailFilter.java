@@ -0,0 +1,127 @@
+package kz.aitu.digitalcontent.index;
+
+import kz.aitu.digitalcontent.patterns.LoggerService;
+import kz.aitu.digitalcontent.repository.UserRepository;
+import kz.aitu.digitalcontent.utils.BloomFilter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Bloom filter of registered emails, so signups only query the database for
+// emails that might already exist. A missed email (e.g. one registered through
+// another instance) is still caught by the UNIQUE constraint on users.email.
+//
+// Bloom filters cannot forget values, so deletes and email changes only leave
+// stale bits behind (extra database checks, never wrong answers). The filter is
+// rebuilt from the table once those pile up or it outgrows its sizing.
+@Component
+public class EmailFilter {
+
+    private final UserRepository repository;
+    private final LoggerService logger = LoggerService.getInstance();
+    private final long minCapacity;
+    private final double falsePositiveRate;
+
+    private volatile BloomFilter filter;
+    private final AtomicLong staleEntries = new AtomicLong();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    private final AtomicLong checks = new AtomicLong();
+    private final AtomicLong possibleHits = new AtomicLong();
+
+    @Autowired
+    public EmailFilter(UserRepository repository,
+                       @Value("${users.email-filter.min-capacity:100000}") long minCapacity,
+                       @Value("${users.email-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.repository = repository;
+        this.minCapacity = minCapacity;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildAsync() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        Thread builder = new Thread(() -> {
+            try {
+                rebuild();
+            } finally {
+                rebuilding.set(false);
+            }
+        }, "email-filter");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    public void rebuild() {
+        long start = System.nanoTime();
+        try {
+            long userCount = repository.count();
+            // Room to double before the false positive rate starts to climb
+            BloomFilter newFilter = BloomFilter.create(Math.max(minCapacity, userCount * 2), falsePositiveRate);
+            long staleBefore = staleEntries.get();
+            repository.streamAllEmails(newFilter::add);
+
+            filter = newFilter;
+            staleEntries.addAndGet(-staleBefore);
+            logger.info(() -> "Email filter built: " + newFilter.getInsertions() + " emails, "
+                    + newFilter.getBitCount() / 8 / 1024 + " KB in "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms");
+        } catch (RuntimeException e) {
+            logger.error("Email filter not built, every signup checks the database: {}", e.getMessage());
+        }
+    }
+
+    // True when the database has to be asked; always true until the filter is built
+    public boolean mightExist(String email) {
+        checks.incrementAndGet();
+        BloomFilter current = filter;
+        if (current == null || current.mightContain(email)) {
+            possibleHits.incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    public void add(String email) {
+        BloomFilter current = filter;
+        if (current == null) {
+            return;
+        }
+        current.add(email);
+        if (current.getInsertions() > current.getExpectedInsertions()) {
+            rebuildAsync();
+        }
+    }
+
+    // Called when an email may have left the table (user deleted or email changed)
+    public void markStale() {
+        BloomFilter current = filter;
+        if (current != null && staleEntries.incrementAndGet() > current.getInsertions() / 10) {
+            rebuildAsync();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        BloomFilter current = filter;
+        stats.put("ready", current != null);
+        stats.put("emails", current != null ? current.getInsertions() : 0);
+        stats.put("capacity", current != null ? current.getExpectedInsertions() : 0);
+        stats.put("bits", current != null ? current.getBitCount() : 0);
+        stats.put("hashFunctions", current != null ? current.getHashCount() : 0);
+        stats.put("expectedFalsePositiveRate", current != null ? current.expectedFalsePositiveRate() : 1.0);
+        stats.put("staleEntries", staleEntries.get());
+        stats.put("checks", checks.get());
+        stats.put("databaseChecks", possibleHits.get());
+        return stats;
+    }
+}
@@ -0,0 +1,65 @@
+package kz.aitu.digitalcontent.index;
+
+import java.util.Arrays;
+
+// Sorted, duplicate-free list of content ids backed by a plain int[]
+class PostingList {
+    private int[] ids = new int[4];
+    private int size;
+
+    void add(int id) {
+        // Rebuilds scan in id order and new rows get the largest SERIAL key, so appending is
+        // the fast path; anything else (updates, out-of-order input) is a sorted insert
+        if (size == 0 || ids[size - 1] < id) {
+            ensureCapacity();
+            ids[size++] = id;
+            return;
+        }
+
+        int pos = Arrays.binarySearch(ids, 0, size, id);
+        if (pos >= 0) {
+            return;
+        }
+        int insertAt = -pos - 1;
+        ensureCapacity();
+        System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+        ids[insertAt] = id;
+        size++;
+    }
+
+    void remove(int id) {
+        int pos = Arrays.binarySearch(ids, 0, size, id);
+        if (pos < 0) {
+            return;
+        }
+        System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+        size--;
+    }
+
+    boolean contains(int id) {
+        return Arrays.binarySearch(ids, 0, size, id) >= 0;
+    }
+
+    int get(int index) {
+        return ids[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    long estimatedBytes() {
+        // Object header + fields, plus the array header and its slots
+        return 24 + 16 + 4L * ids.length;
+    }
+
+    private void ensureCapacity() {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, ids.length * 2);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package kz.aitu.digitalcontent.metrics;
+
+import kz.aitu.digitalcontent.repository.interfaces.CrudRepository;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Times every public method of the JDBC repositories (CRUD plus findByEmail, findByUserId, ...)
+// through a class proxy, so the repositories themselves stay unchanged. Services inject the
+// concrete classes, hence a subclass proxy rather than an interface one.
+// Methods taking a callback (streamAll) include the time spent in the callback.
+@Component
+public class RepositoryMetrics implements BeanPostProcessor {
+
+    private final boolean enabled;
+    private final ConcurrentMap<Method, MethodStats> methods = new ConcurrentHashMap<>();
+
+    public RepositoryMetrics(@Value("${metrics.repositories.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!enabled || !(bean instanceof CrudRepository)) {
+            return bean;
+        }
+
+        String repositoryName = ClassUtils.getUserClass(AopUtils.getTargetClass(bean)).getSimpleName();
+        MethodInterceptor timing = invocation -> {
+            Method method = invocation.getMethod();
+            if (!Modifier.isPublic(method.getModifiers()) || method.getDeclaringClass() == Object.class) {
+                return invocation.proceed();
+            }
+
+            MethodStats stats = methods.computeIfAbsent(method,
+                    m -> new MethodStats(repositoryName + "." + m.getName()));
+            long start = System.nanoTime();
+            try {
+                return invocation.proceed();
+            } catch (Throwable e) {
+                stats.errors.increment();
+                throw e;
+            } finally {
+                stats.latency.record(System.nanoTime() - start);
+            }
+        };
+
+        // @Repository beans may already be proxied for exception translation; time inside that proxy
+        if (bean instanceof Advised && !((Advised) bean).isFrozen()) {
+            ((Advised) bean).addAdvice(timing);
+            return bean;
+        }
+        ProxyFactory factory = new ProxyFactory(bean);
+        factory.setProxyTargetClass(true);
+        factory.addAdvice(timing);
+        return factory.getProxy();
+    }
+
+    // Overloads (e.g. findByUserId with and without paging) are merged under one name
+    public Map<String, Object> getStats() {
+        Map<String, LatencyHistogram> latencies = new TreeMap<>();
+        Map<String, Long> errors = new TreeMap<>();
+        for (MethodStats stats : methods.values()) {
+            latencies.merge(stats.name, stats.latency, LatencyHistogram::merge);
+            errors.merge(stats.name, stats.errors.sum(), Long::sum);
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        latencies.forEach((name, latency) -> {
+            Map<String, Object> entry = latency.getStats();
+            long count = latency.getCount();
+            long failed = errors.get(name);
+            entry.put("errors", failed);
+            entry.put("errorRate", count > 0 ? failed / (double) count : 0.0);
+            result.put(name, entry);
+        });
+        return result;
+    }
+
+    private static final class MethodStats {
+        private final String name;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+
+        MethodStats(String name) {
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package kz.aitu.digitalcontent.metrics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import kz.aitu.digitalcontent.patterns.LoggerService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+// Counts the SQL each request runs and reports it in X-SQL-* headers and the log. Requests
+// over the statement budget, or running one statement repeatedly (N+1), are logged as warnings.
+// Headers are set when the body starts, so a streamed body's queries only show up in the log.
+@Component
+public class SqlAccountingFilter extends OncePerRequestFilter {
+
+    private final LoggerService logger = LoggerService.getInstance();
+    private final boolean enabled;
+    private final int statementBudget;
+    private final int repeatThreshold;
+
+    public SqlAccountingFilter(@Value("${sql.accounting.enabled:true}") boolean enabled,
+                               @Value("${sql.accounting.statement-budget:10}") int statementBudget,
+                               @Value("${sql.accounting.repeat-threshold:5}") int repeatThreshold) {
+        this.enabled = enabled;
+        this.statementBudget = statementBudget;
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlContext context = new SqlContext();
+        SqlHeaderResponse wrapped = new SqlHeaderResponse(response, context);
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(SqlAccountingFilter.class.getName(),
+                new StreamingInterceptor(context, request));
+
+        SqlContext.bind(context);
+        try {
+            chain.doFilter(request, wrapped);
+        } finally {
+            SqlContext.unbind();
+            wrapped.writeHeaders();
+            if (!request.isAsyncStarted()) {
+                report(request, context);
+            }
+        }
+    }
+
+    private void report(HttpServletRequest request, SqlContext context) {
+        Map.Entry<String, Integer> repeated = context.getMostRepeated();
+        boolean overBudget = context.getStatements() > statementBudget;
+        boolean nPlusOne = repeated != null && repeated.getValue() >= repeatThreshold;
+
+        if (overBudget || nPlusOne) {
+            logger.warn(() -> describe(request, context)
+                    + (overBudget ? ", over the budget of " + statementBudget : "")
+                    + (nPlusOne ? ", possible N+1: " + repeated.getValue() + "x " + repeated.getKey() : ""));
+        } else {
+            logger.debug(() -> describe(request, context));
+        }
+    }
+
+    private String describe(HttpServletRequest request, SqlContext context) {
+        return request.getMethod() + " " + request.getRequestURI() + ": "
+                + context.getStatements() + " SQL statements, "
+                + context.getConnections() + " connections, "
+                + String.format("%.1f", context.getDatabaseMillis()) + " ms in the database";
+    }
+
+    // StreamingResponseBody runs on an async thread; carry the context there and report at the end
+    private final class StreamingInterceptor implements CallableProcessingInterceptor {
+        private final SqlContext context;
+        private final HttpServletRequest request;
+
+        StreamingInterceptor(SqlContext context, HttpServletRequest request) {
+            this.context = context;
+            this.request = request;
+        }
+
+        @Override
+        public <T> void preProcess(NativeWebRequest webRequest, Callable<T> task) {
+            SqlContext.bind(context);
+        }
+
+        @Override
+        public <T> void postProcess(NativeWebRequest webRequest, Callable<T> task, Object result) {
+            SqlContext.unbind();
+        }
+
+        @Override
+        public <T> void afterCompletion(NativeWebRequest webRequest, Callable<T> task) {
+            report(request, context);
+        }
+    }
+
+    // Adds the headers just before the first byte of the body, while they can still be set
+    private static final class SqlHeaderResponse extends HttpServletResponseWrapper {
+        private final SqlContext context;
+        private boolean headersWritten;
+
+        SqlHeaderResponse(HttpServletResponse response, SqlContext context) {
+            super(response);
+            this.context = context;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeaders();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeaders();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeaders();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeaders();
+            super.sendError(sc);
+        }
+
+        void writeHeaders() {
+            if (headersWritten || isCommitted()) {
+                return;
+            }
+            headersWritten = true;
+            setHeader("X-SQL-Statements", String.valueOf(context.getStatements()));
+            setHeader("X-SQL-Connections", String.valueOf(context.getConnections()));
+            setHeader("X-SQL-Time-Ms", String.format("%.1f", context.getDatabaseMillis()));
+        }
+    }
+}
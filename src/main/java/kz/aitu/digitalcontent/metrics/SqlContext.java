@@ -0,0 +1,73 @@
+package kz.aitu.digitalcontent.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// SQL work done for one HTTP request: statements, connections and time spent executing.
+// SqlAccountingFilter binds it to the request thread (and to the async thread of a streamed
+// response); JDBC calls made outside a request, such as index builds or write-behind flushes,
+// are not counted. A streamed response may touch it from two threads, hence the atomics.
+public final class SqlContext {
+
+    private static final ThreadLocal<SqlContext> CURRENT = new ThreadLocal<>();
+
+    private final AtomicInteger statements = new AtomicInteger();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final AtomicLong databaseNanos = new AtomicLong();
+    // Executions per SQL text, to spot the same query run once per row (N+1)
+    private final ConcurrentMap<String, AtomicInteger> executions = new ConcurrentHashMap<>();
+
+    public static SqlContext current() {
+        return CURRENT.get();
+    }
+
+    static void bind(SqlContext context) {
+        CURRENT.set(context);
+    }
+
+    static void unbind() {
+        CURRENT.remove();
+    }
+
+    void recordConnection() {
+        connections.incrementAndGet();
+    }
+
+    void recordStatement(String sql, long nanos) {
+        statements.incrementAndGet();
+        databaseNanos.addAndGet(nanos);
+        executions.computeIfAbsent(sql, key -> new AtomicInteger()).incrementAndGet();
+    }
+
+    // Rows pulled by ResultSet.next() after execute returned: time only, no extra statement
+    void recordFetch(long nanos) {
+        databaseNanos.addAndGet(nanos);
+    }
+
+    public int getStatements() {
+        return statements.get();
+    }
+
+    public int getConnections() {
+        return connections.get();
+    }
+
+    public double getDatabaseMillis() {
+        return databaseNanos.get() / 1_000_000.0;
+    }
+
+    // The statement executed most often, or null when nothing ran
+    public Map.Entry<String, Integer> getMostRepeated() {
+        Map.Entry<String, Integer> top = null;
+        for (Map.Entry<String, AtomicInteger> entry : executions.entrySet()) {
+            int count = entry.getValue().get();
+            if (top == null || count > top.getValue()) {
+                top = Map.entry(entry.getKey(), count);
+            }
+        }
+        return top;
+    }
+}
@@ -0,0 +1,105 @@
+package kz.aitu.digitalcontent.metrics;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+// Wraps pooled connections handed out during a request so every statement executed on them
+// is counted and timed in the request's SqlContext. Outside a request the connection is
+// returned as it is, so background work pays nothing.
+//
+// execute* only covers the first round trip. With a fetch size the driver pulls later rows
+// inside ResultSet.next(), so result sets are wrapped too and their next() time is added to
+// the request's database time (without counting extra statements). COPY goes through the
+// driver's CopyManager, which the proxy cannot see, so the repository reports it itself
+// through recordStatement().
+public final class SqlTracking {
+
+    private SqlTracking() {
+    }
+
+    public static Connection track(Connection connection) {
+        SqlContext context = SqlContext.current();
+        if (context == null) {
+            return connection;
+        }
+
+        context.recordConnection();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (result instanceof Statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                        // prepareStatement/prepareCall carry the SQL; createStatement gets it at execute time
+                        String sql = args != null && args.length > 0 && args[0] instanceof String
+                                ? (String) args[0] : null;
+                        return trackStatement((Statement) result, method.getReturnType(), sql, context);
+                    }
+                    return result;
+                });
+    }
+
+    // For work that bypasses the wrapped connection (COPY through CopyManager)
+    public static void recordStatement(String sql, long nanos) {
+        SqlContext context = SqlContext.current();
+        if (context != null) {
+            context.recordStatement(sql, nanos);
+        }
+    }
+
+    private static Object trackStatement(Statement statement, Class<?> type, String preparedSql, SqlContext context) {
+        return Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    if (!method.getName().startsWith("execute")) {
+                        // getResultSet, getGeneratedKeys
+                        return trackResult(invoke(statement, method, args), context);
+                    }
+
+                    String sql = preparedSql;
+                    if (sql == null) {
+                        sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : "?";
+                    }
+                    long start = System.nanoTime();
+                    Object result;
+                    try {
+                        result = invoke(statement, method, args);
+                    } finally {
+                        context.recordStatement(sql, System.nanoTime() - start);
+                    }
+                    return trackResult(result, context);
+                });
+    }
+
+    private static Object trackResult(Object result, SqlContext context) {
+        if (!(result instanceof ResultSet)) {
+            return result;
+        }
+
+        ResultSet resultSet = (ResultSet) result;
+        return Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> {
+                    if (!method.getName().equals("next")) {
+                        return invoke(resultSet, method, args);
+                    }
+                    long start = System.nanoTime();
+                    try {
+                        return invoke(resultSet, method, args);
+                    } finally {
+                        context.recordFetch(System.nanoTime() - start);
+                    }
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -1,36 +1,140 @@
 package kz.aitu.digitalcontent.patterns;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import kz.aitu.digitalcontent.metrics.LatencyHistogram;
+import kz.aitu.digitalcontent.metrics.SqlTracking;
+import kz.aitu.digitalcontent.utils.PropertiesLoader;
+
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class DatabaseConfig {
-    private static DatabaseConfig instance;
+
+    private final Properties properties;
     private String url;
     private String username;
     private String password;
 
+    private final int batchSize;
+    private final int fetchSize;
+
+    private volatile HikariDataSource dataSource;
+    private final ReplicaRouter replicaRouter;
+    // Not synchronized: pool start-up opens connections, and blocking I/O inside a
+    // monitor would pin a virtual thread to its carrier
+    private final ReentrantLock poolLock = new ReentrantLock();
+
+    // Connection checkout (wait) metrics
+    private final LatencyHistogram acquireLatency = new LatencyHistogram();
+    private final AtomicLong acquireFailures = new AtomicLong();
+
     private DatabaseConfig() {
-        this.url = "jdbc:postgresql://localhost:5432/dstore_db";
-        this.username = "postgres";
-        this.password = "1234";
+        this.properties = PropertiesLoader.loadApplicationProperties();
+        this.url = properties.getProperty("db.url", "jdbc:postgresql://localhost:5432/dstore_db");
+        this.username = properties.getProperty("db.username", "postgres");
+        this.password = properties.getProperty("db.password", "");
+        this.batchSize = Math.max(1, PropertiesLoader.getInt(properties, "db.batch.chunk-size", 500));
+        this.fetchSize = Math.max(1, PropertiesLoader.getInt(properties, "db.fetch-size", 500));
+        this.replicaRouter = createReplicaRouter();
+
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "db-pool-shutdown"));
     }
 
-    public static synchronized DatabaseConfig getInstance() {
-        if (instance == null) {
-            instance = new DatabaseConfig();
-        }
-        return instance;
+    private static class Holder {
+        private static final DatabaseConfig INSTANCE = new DatabaseConfig();
+    }
+
+    public static DatabaseConfig getInstance() {
+        return Holder.INSTANCE;
     }
 
     public Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(url, username, password);
+        HikariDataSource pool = getDataSource();
+        long start = System.nanoTime();
+
+        try {
+            Connection connection = pool.getConnection();
+            recordAcquire(System.nanoTime() - start);
+            return SqlTracking.track(connection);
+        } catch (SQLException e) {
+            acquireFailures.incrementAndGet();
+            throw e;
+        }
+    }
+
+    // For read-only queries: a healthy replica if one is configured, otherwise the primary
+    public Connection getReadConnection() throws SQLException {
+        if (!replicaRouter.hasReplicas()) {
+            return getConnection();
+        }
+
+        long start = System.nanoTime();
+        Connection connection = replicaRouter.getConnection();
+        if (connection == null) {
+            return getConnection();
+        }
+
+        recordAcquire(System.nanoTime() - start);
+        return SqlTracking.track(connection);
     }
 
     public void configure(String url, String username, String password) {
         this.url = url;
         this.username = username;
         this.password = password;
+        // Next getConnection() builds a pool for the new settings
+        close();
+    }
+
+    public void close() {
+        poolLock.lock();
+        try {
+            if (dataSource != null) {
+                dataSource.close();
+                dataSource = null;
+            }
+        } finally {
+            poolLock.unlock();
+        }
+    }
+
+    private void shutdown() {
+        close();
+        replicaRouter.close();
+    }
+
+    public Map<String, Object> getPoolStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        HikariDataSource pool = dataSource;
+        HikariPoolMXBean mxBean = pool != null ? pool.getHikariPoolMXBean() : null;
+
+        stats.put("activeConnections", mxBean != null ? mxBean.getActiveConnections() : 0);
+        stats.put("idleConnections", mxBean != null ? mxBean.getIdleConnections() : 0);
+        stats.put("totalConnections", mxBean != null ? mxBean.getTotalConnections() : 0);
+        stats.put("threadsAwaitingConnection", mxBean != null ? mxBean.getThreadsAwaitingConnection() : 0);
+
+        stats.put("acquireCount", acquireLatency.getCount());
+        stats.put("acquireFailures", acquireFailures.get());
+        stats.put("acquireAvgMillis", acquireLatency.getMeanNanos() / 1_000_000.0);
+        stats.put("acquireMaxMillis", acquireLatency.getMaxNanos() / 1_000_000.0);
+        stats.put("replicas", replicaRouter.getStats());
+        return stats;
+    }
+
+    // Connection checkout wait percentiles, primary and replicas together
+    public Map<String, Object> getAcquireStats() {
+        Map<String, Object> stats = acquireLatency.getStats();
+        stats.put("failures", acquireFailures.get());
+        return stats;
     }
 
     public String getUrl() {
@@ -40,4 +144,76 @@ public class DatabaseConfig {
     public String getUsername() {
         return username;
     }
-}
\ No newline at end of file
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    private HikariDataSource getDataSource() {
+        HikariDataSource pool = dataSource;
+        if (pool == null) {
+            poolLock.lock();
+            try {
+                pool = dataSource;
+                if (pool == null) {
+                    pool = new HikariDataSource(buildPoolConfig("dstore-pool", url, username, password));
+                    dataSource = pool;
+                    LoggerService.getInstance().info("Connection pool started for " + url);
+                }
+            } finally {
+                poolLock.unlock();
+            }
+        }
+        return pool;
+    }
+
+    private ReplicaRouter createReplicaRouter() {
+        List<String> replicaUrls = new ArrayList<>();
+        for (String replicaUrl : properties.getProperty("db.replicas", "").split(",")) {
+            if (!replicaUrl.trim().isEmpty()) {
+                replicaUrls.add(replicaUrl.trim());
+            }
+        }
+
+        String replicaUser = properties.getProperty("db.replica.username", username);
+        String replicaPassword = properties.getProperty("db.replica.password", password);
+        String balancing = properties.getProperty("db.replica.balancing", "round-robin");
+
+        return new ReplicaRouter(
+                replicaUrls,
+                replicaUrl -> buildPoolConfig("dstore-replica-" + (replicaUrls.indexOf(replicaUrl) + 1),
+                        replicaUrl, replicaUser, replicaPassword),
+                ReplicaRouter.Balancing.valueOf(balancing.trim().toUpperCase().replace('-', '_')),
+                PropertiesLoader.getLong(properties, "db.replica.max-lag-ms", 5000),
+                PropertiesLoader.getLong(properties, "db.replica.lag-check-interval-ms", 1000));
+    }
+
+    private HikariConfig buildPoolConfig(String poolName, String jdbcUrl, String user, String pass) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(poolName);
+        config.setJdbcUrl(jdbcUrl);
+        config.setUsername(user);
+        config.setPassword(pass);
+
+        config.setMinimumIdle(PropertiesLoader.getInt(properties, "db.pool.min-idle", 2));
+        config.setMaximumPoolSize(PropertiesLoader.getInt(properties, "db.pool.max-size", 10));
+        config.setConnectionTimeout(PropertiesLoader.getLong(properties, "db.pool.connection-timeout-ms", 5000));
+        config.setValidationTimeout(PropertiesLoader.getLong(properties, "db.pool.validation-timeout-ms", 1000));
+        config.setIdleTimeout(PropertiesLoader.getLong(properties, "db.pool.idle-timeout-ms", 300000));
+        config.setMaxLifetime(PropertiesLoader.getLong(properties, "db.pool.max-lifetime-ms", 1800000));
+        config.setLeakDetectionThreshold(PropertiesLoader.getLong(properties, "db.pool.leak-detection-threshold-ms", 0));
+
+        // Let pgjdbc turn addBatch() inserts into multi-row INSERT ... VALUES statements
+        config.addDataSourceProperty("reWriteBatchedInserts",
+                properties.getProperty("db.batch.rewrite-inserts", "true"));
+        return config;
+    }
+
+    private void recordAcquire(long nanos) {
+        acquireLatency.record(nanos);
+    }
+}
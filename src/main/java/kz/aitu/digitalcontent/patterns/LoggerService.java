@@ -1,36 +1,324 @@
 package kz.aitu.digitalcontent.patterns;
 
+import kz.aitu.digitalcontent.utils.PropertiesLoader;
+
+import java.io.PrintStream;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
 
+// Asynchronous logger: callers only check the level, build the message and claim a slot in
+// a bounded ring buffer; a single background thread formats timestamps and writes the lines.
+// When the buffer is full new messages are dropped and counted rather than blocking the caller.
+// An idle writer parks until a producer wakes it; producers only pay for the unpark when the
+// writer has announced it is about to park.
 public class LoggerService {
-    private static LoggerService instance;
+
+    public enum Level {
+        DEBUG, INFO, WARN, ERROR
+    }
+
     private static final DateTimeFormatter formatter =
             DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final int MAX_BATCH = 256;
+    // Only a safety net: producers unpark the writer, so this bounds a missed wakeup, not latency
+    private static final long IDLE_PARK_NANOS = 1_000_000_000L;
 
-    private LoggerService() {}
+    private final Level threshold;
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<LogEvent> slots;
+    // Next sequence to claim (producers) and next to write (writer thread only)
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
 
-    public static synchronized LoggerService getInstance() {
-        if (instance == null) {
-            instance = new LoggerService();
-        }
-        return instance;
+    private final LongAdder dropped = new LongAdder();
+    private volatile long written;
+    private final PrintStream out;
+    private final Thread writer;
+    private volatile boolean running = true;
+    // Set by the writer before its last look at the buffer; a producer that sees it unparks
+    private volatile boolean writerParked;
+
+    // Writer-thread state: the formatted timestamp is reused for every line in the same second
+    private final ZoneId zone = ZoneId.systemDefault();
+    private long cachedSecond = Long.MIN_VALUE;
+    private String cachedTimestamp;
+    private long reportedDrops;
+
+    private LoggerService() {
+        this(PropertiesLoader.loadApplicationProperties());
+        start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "logger-shutdown"));
+    }
+
+    private LoggerService(Properties properties) {
+        this(Level.valueOf(properties.getProperty("logger.level", "INFO").trim().toUpperCase()),
+                PropertiesLoader.getInt(properties, "logger.buffer-size", 8192), System.out);
+    }
+
+    // Tests build their own instance writing to their own stream, and start the writer when they want
+    LoggerService(Level threshold, int bufferSize, PrintStream out) {
+        this.threshold = threshold;
+        this.out = out;
+        // Rounded up to a power of two so a sequence maps to its slot with a mask
+        int requested = Math.max(2, bufferSize);
+        this.capacity = Integer.highestOneBit(requested - 1) << 1;
+        this.mask = capacity - 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+
+        writer = new Thread(this::runWriter, "logger-writer");
+        writer.setDaemon(true);
+    }
+
+    void start() {
+        writer.start();
+    }
+
+    // Holder idiom: lazy and thread-safe without a lock, so virtual threads never pin here
+    private static class Holder {
+        private static final LoggerService INSTANCE = new LoggerService();
+    }
+
+    public static LoggerService getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    public boolean isEnabled(Level level) {
+        return level.ordinal() >= threshold.ordinal();
     }
 
     public void info(String message) {
-        log("INFO", message);
+        log(Level.INFO, message);
+    }
+
+    public void info(String pattern, Object arg) {
+        if (isEnabled(Level.INFO)) {
+            enqueue(Level.INFO, format(pattern, arg));
+        }
+    }
+
+    public void info(String pattern, Object arg1, Object arg2) {
+        if (isEnabled(Level.INFO)) {
+            enqueue(Level.INFO, format(pattern, arg1, arg2));
+        }
+    }
+
+    public void info(Supplier<String> message) {
+        if (isEnabled(Level.INFO)) {
+            enqueue(Level.INFO, message.get());
+        }
+    }
+
+    public void warn(String message) {
+        log(Level.WARN, message);
+    }
+
+    public void warn(String pattern, Object arg) {
+        if (isEnabled(Level.WARN)) {
+            enqueue(Level.WARN, format(pattern, arg));
+        }
+    }
+
+    public void warn(String pattern, Object arg1, Object arg2) {
+        if (isEnabled(Level.WARN)) {
+            enqueue(Level.WARN, format(pattern, arg1, arg2));
+        }
+    }
+
+    public void warn(Supplier<String> message) {
+        if (isEnabled(Level.WARN)) {
+            enqueue(Level.WARN, message.get());
+        }
     }
 
     public void error(String message) {
-        log("ERROR", message);
+        log(Level.ERROR, message);
+    }
+
+    public void error(String pattern, Object arg) {
+        if (isEnabled(Level.ERROR)) {
+            enqueue(Level.ERROR, format(pattern, arg));
+        }
+    }
+
+    public void error(String pattern, Object arg1, Object arg2) {
+        if (isEnabled(Level.ERROR)) {
+            enqueue(Level.ERROR, format(pattern, arg1, arg2));
+        }
+    }
+
+    public void error(Supplier<String> message) {
+        if (isEnabled(Level.ERROR)) {
+            enqueue(Level.ERROR, message.get());
+        }
     }
 
     public void debug(String message) {
-        log("DEBUG", message);
+        log(Level.DEBUG, message);
+    }
+
+    public void debug(String pattern, Object arg) {
+        if (isEnabled(Level.DEBUG)) {
+            enqueue(Level.DEBUG, format(pattern, arg));
+        }
+    }
+
+    public void debug(String pattern, Object arg1, Object arg2) {
+        if (isEnabled(Level.DEBUG)) {
+            enqueue(Level.DEBUG, format(pattern, arg1, arg2));
+        }
     }
 
-    private void log(String level, String message) {
-        String timestamp = LocalDateTime.now().format(formatter);
-        System.out.println(String.format("[%s] %s: %s", timestamp, level, message));
+    public void debug(Supplier<String> message) {
+        if (isEnabled(Level.DEBUG)) {
+            enqueue(Level.DEBUG, message.get());
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("level", threshold.name());
+        stats.put("capacity", capacity);
+        stats.put("queued", tail.get() - head);
+        stats.put("written", written);
+        stats.put("dropped", dropped.sum());
+        return stats;
+    }
+
+    private void log(Level level, String message) {
+        if (isEnabled(level)) {
+            enqueue(level, message);
+        }
+    }
+
+    private void enqueue(Level level, String message) {
+        LogEvent event = new LogEvent(level, System.currentTimeMillis(), message);
+        if (!running) {
+            // After shutdown there is no writer; keep the line rather than losing it
+            out.println(event.level + ": " + event.message);
+            return;
+        }
+
+        long sequence;
+        do {
+            sequence = tail.get();
+            if (sequence - head >= capacity) {
+                dropped.increment();
+                return;
+            }
+        } while (!tail.compareAndSet(sequence, sequence + 1));
+
+        slots.set((int) (sequence & mask), event);
+        if (writerParked) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    private void runWriter() {
+        StringBuilder batch = new StringBuilder(8192);
+
+        while (true) {
+            int count = 0;
+            LogEvent event;
+            while (count < MAX_BATCH && (event = poll()) != null) {
+                appendLine(batch, event.timeMillis, event.level, event.message);
+                count++;
+            }
+
+            long drops = dropped.sum();
+            if (drops > reportedDrops) {
+                appendLine(batch, System.currentTimeMillis(), Level.WARN,
+                        (drops - reportedDrops) + " log messages dropped, buffer full");
+                reportedDrops = drops;
+            }
+
+            if (batch.length() > 0) {
+                out.print(batch);
+                out.flush();
+                batch.setLength(0);
+                written += count;
+                continue;
+            }
+            if (!running && tail.get() == head) {
+                return;
+            }
+
+            // Announce the park, then look once more: a producer that filled the head slot
+            // before seeing the flag is caught by the re-check, any later one unparks us
+            writerParked = true;
+            if (running && slots.get((int) (head & mask)) == null) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+            writerParked = false;
+        }
+    }
+
+    // A claimed slot may not be filled yet; the writer then waits for it to keep order
+    private LogEvent poll() {
+        int index = (int) (head & mask);
+        LogEvent event = slots.get(index);
+        if (event == null) {
+            return null;
+        }
+        slots.set(index, null);
+        head++;
+        return event;
+    }
+
+    private void appendLine(StringBuilder batch, long timeMillis, Level level, String message) {
+        long second = Math.floorDiv(timeMillis, 1000);
+        if (second != cachedSecond) {
+            cachedTimestamp = LocalDateTime.ofInstant(Instant.ofEpochSecond(second), zone).format(formatter);
+            cachedSecond = second;
+        }
+        batch.append('[').append(cachedTimestamp).append("] ")
+                .append(level.name()).append(": ")
+                .append(message).append(System.lineSeparator());
+    }
+
+    // Stops accepting lines into the buffer and waits (up to 2 s) for the writer to flush it
+    void shutdown() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(2000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // {} placeholders, filled in order; extra placeholders are left as they are
+    private static String format(String pattern, Object... args) {
+        StringBuilder message = new StringBuilder(pattern.length() + 32);
+        int argIndex = 0;
+        int from = 0;
+        int at;
+        while (argIndex < args.length && (at = pattern.indexOf("{}", from)) >= 0) {
+            message.append(pattern, from, at).append(args[argIndex++]);
+            from = at + 2;
+        }
+        return message.append(pattern, from, pattern.length()).toString();
+    }
+
+    private static final class LogEvent {
+        private final Level level;
+        private final long timeMillis;
+        private final String message;
+
+        LogEvent(Level level, long timeMillis, String message) {
+            this.level = level;
+            this.timeMillis = timeMillis;
+            this.message = message;
+        }
     }
-}
\ No newline at end of file
+}
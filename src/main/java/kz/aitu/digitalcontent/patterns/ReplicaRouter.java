@@ -0,0 +1,203 @@
+package kz.aitu.digitalcontent.patterns;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+// Picks a read replica for read-only queries. Replicas whose replication lag is
+// above the threshold (or that cannot be reached) are skipped until they catch up.
+class ReplicaRouter {
+
+    enum Balancing {
+        ROUND_ROBIN, LEAST_LOADED
+    }
+
+    // NULL when the WAL receiver is not streaming: a replica cut off from the primary has
+    // replayed everything it received and would otherwise report no lag at all. Reading
+    // pg_stat_wal_receiver.status needs a superuser or a member of pg_read_all_stats.
+    // Otherwise 0 when everything received is replayed, or the age of the last replayed commit.
+    private static final String LAG_SQL =
+            "SELECT CASE WHEN NOT EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE status = 'streaming') THEN NULL " +
+            "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) END";
+
+    private final List<Replica> replicas = new ArrayList<>();
+    private final Balancing balancing;
+    private final long maxLagMillis;
+    private final AtomicInteger nextIndex = new AtomicInteger();
+    private final LoggerService logger = LoggerService.getInstance();
+    private ScheduledExecutorService lagChecker;
+
+    ReplicaRouter(List<String> urls, Function<String, HikariConfig> poolConfigFactory,
+                  Balancing balancing, long maxLagMillis, long checkIntervalMillis) {
+        this.balancing = balancing;
+        this.maxLagMillis = maxLagMillis;
+
+        for (String url : urls) {
+            replicas.add(new Replica(url, poolConfigFactory.apply(url)));
+        }
+
+        if (!replicas.isEmpty()) {
+            lagChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "replica-lag-checker");
+                thread.setDaemon(true);
+                return thread;
+            });
+            lagChecker.scheduleWithFixedDelay(this::checkLag, 0, checkIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    boolean hasReplicas() {
+        return !replicas.isEmpty();
+    }
+
+    // Returns null when no replica is usable, so the caller can fall back to the primary
+    Connection getConnection() {
+        Replica replica = choose();
+        if (replica == null) {
+            return null;
+        }
+
+        try {
+            return replica.dataSource().getConnection();
+        } catch (SQLException e) {
+            replica.healthy = false;
+            logger.error("Replica {} unavailable, using primary: {}", replica.url, e.getMessage());
+            return null;
+        }
+    }
+
+    List<Map<String, Object>> getStats() {
+        List<Map<String, Object>> stats = new ArrayList<>();
+        for (Replica replica : replicas) {
+            Map<String, Object> replicaStats = new LinkedHashMap<>();
+            replicaStats.put("url", replica.url);
+            replicaStats.put("healthy", replica.healthy);
+            replicaStats.put("lagMillis", replica.lagMillis);
+            replicaStats.put("activeConnections", replica.activeConnections());
+            stats.add(replicaStats);
+        }
+        return stats;
+    }
+
+    void close() {
+        if (lagChecker != null) {
+            lagChecker.shutdownNow();
+        }
+        for (Replica replica : replicas) {
+            replica.close();
+        }
+    }
+
+    private Replica choose() {
+        if (balancing == Balancing.LEAST_LOADED) {
+            Replica best = null;
+            for (Replica replica : replicas) {
+                if (replica.healthy && (best == null || replica.activeConnections() < best.activeConnections())) {
+                    best = replica;
+                }
+            }
+            return best;
+        }
+
+        int size = replicas.size();
+        int start = Math.floorMod(nextIndex.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private void checkLag() {
+        for (Replica replica : replicas) {
+            try (Connection conn = replica.dataSource().getConnection();
+                 Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(LAG_SQL)) {
+
+                // No row or NULL (receiver not streaming) both mean the replica cannot be trusted
+                Number measured = rs.next() ? (Number) rs.getObject(1) : null;
+                long lag = measured != null ? measured.longValue() : Long.MAX_VALUE;
+                boolean healthy = lag <= maxLagMillis;
+                if (healthy != replica.healthy) {
+                    logger.info(() -> "Replica " + replica.url + (healthy ? " back in rotation" : " lagging")
+                            + " (lag " + lag + " ms)");
+                }
+                replica.lagMillis = lag;
+                replica.healthy = healthy;
+
+            } catch (SQLException | RuntimeException e) {
+                if (replica.healthy) {
+                    logger.error("Replica {} failed lag check: {}", replica.url, e.getMessage());
+                }
+                replica.healthy = false;
+            }
+        }
+    }
+
+    private static class Replica {
+        private final String url;
+        private final HikariConfig poolConfig;
+        private volatile HikariDataSource dataSource;
+        private volatile boolean healthy;
+        private volatile long lagMillis = -1;
+        private final ReentrantLock lock = new ReentrantLock();
+
+        Replica(String url, HikariConfig poolConfig) {
+            this.url = url;
+            this.poolConfig = poolConfig;
+        }
+
+        HikariDataSource dataSource() {
+            HikariDataSource pool = dataSource;
+            if (pool == null) {
+                lock.lock();
+                try {
+                    pool = dataSource;
+                    if (pool == null) {
+                        pool = new HikariDataSource(poolConfig);
+                        dataSource = pool;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+            return pool;
+        }
+
+        int activeConnections() {
+            HikariDataSource pool = dataSource;
+            HikariPoolMXBean mxBean = pool != null ? pool.getHikariPoolMXBean() : null;
+            return mxBean != null ? mxBean.getActiveConnections() : 0;
+        }
+
+        void close() {
+            lock.lock();
+            try {
+                if (dataSource != null) {
+                    dataSource.close();
+                    dataSource = null;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
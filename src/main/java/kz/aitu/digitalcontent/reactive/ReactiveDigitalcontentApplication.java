@@ -0,0 +1,36 @@
+package kz.aitu.digitalcontent.reactive;
+
+import kz.aitu.digitalcontent.exception.GlobalExceptionHandler;
+import kz.aitu.digitalcontent.utils.DatabaseInitializer;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+// Non-blocking variant of the API (WebFlux on Netty, R2DBC), run as its own process next to
+// the servlet app. Only this package is scanned; the condition keeps the servlet app's scan
+// from picking it up.
+@SpringBootApplication(exclude = {DataSourceAutoConfiguration.class})
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Import(GlobalExceptionHandler.class)
+public class ReactiveDigitalcontentApplication {
+
+    public static void main(String[] args) {
+        DatabaseInitializer.initializeDatabase();
+
+        new SpringApplicationBuilder(ReactiveDigitalcontentApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .profiles("reactive")
+                .run(args);
+    }
+
+    // Tomcat is on the classpath for the servlet app and would otherwise be picked first
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
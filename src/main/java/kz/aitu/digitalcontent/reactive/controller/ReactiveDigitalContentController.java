@@ -0,0 +1,80 @@
+package kz.aitu.digitalcontent.reactive.controller;
+
+import kz.aitu.digitalcontent.dto.DigitalContentDTO;
+import kz.aitu.digitalcontent.dto.DigitalContentMapper;
+import kz.aitu.digitalcontent.model.DigitalContent;
+import kz.aitu.digitalcontent.reactive.service.ReactiveDigitalContentService;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Lists are written as rows arrive: a JSON array by default, one object per line for
+// Accept: application/x-ndjson. A slow client slows the cursor down instead of buffering.
+@RestController
+@RequestMapping("/api/content")
+@CrossOrigin(origins = "*")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveDigitalContentController {
+
+    private final ReactiveDigitalContentService service;
+
+    @Autowired
+    public ReactiveDigitalContentController(ReactiveDigitalContentService service) {
+        this.service = service;
+    }
+
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Publisher<?> getAllContent(@RequestParam(required = false) String after,
+                                      @RequestParam(required = false) Integer limit) {
+        if (after != null || limit != null) {
+            return service.getContentPage(after, limit).map(page -> page.map(DigitalContentMapper::toDTO));
+        }
+        return service.getAllContent().map(DigitalContentMapper::toDTO);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<DigitalContentDTO> getContentById(@PathVariable int id) {
+        return service.getContentById(id).map(DigitalContentMapper::toDTO);
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<DigitalContentDTO>> createContent(@RequestBody DigitalContentDTO dto) {
+        return service.createContent(DigitalContentMapper.toEntity(dto))
+                .map(created -> ResponseEntity.status(HttpStatus.CREATED).body(DigitalContentMapper.toDTO(created)));
+    }
+
+    @PutMapping("/{id}")
+    public Mono<DigitalContentDTO> updateContent(@PathVariable int id, @RequestBody DigitalContentDTO dto) {
+        return service.updateContent(id, DigitalContentMapper.toEntity(dto)).map(DigitalContentMapper::toDTO);
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteContent(@PathVariable int id) {
+        return service.deleteContent(id).then(Mono.just(ResponseEntity.noContent().build()));
+    }
+
+    @GetMapping("/search")
+    public Flux<DigitalContentDTO> searchContent(@RequestParam String keyword,
+                                                 @RequestParam(required = false) Integer limit,
+                                                 @RequestParam(defaultValue = "false") boolean fulltext) {
+        Flux<DigitalContent> results = fulltext
+                ? service.searchFullText(keyword, limit)
+                : service.searchByName(keyword, limit);
+        return results.map(DigitalContentMapper::toDTO);
+    }
+
+    @GetMapping(value = "/available", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Publisher<?> getAvailableContent(@RequestParam(required = false) String after,
+                                            @RequestParam(required = false) Integer limit) {
+        if (after != null || limit != null) {
+            return service.getAvailablePage(after, limit).map(page -> page.map(DigitalContentMapper::toDTO));
+        }
+        return service.getAvailableContent().map(DigitalContentMapper::toDTO);
+    }
+}
@@ -0,0 +1,62 @@
+package kz.aitu.digitalcontent.reactive.controller;
+
+import kz.aitu.digitalcontent.model.Purchase;
+import kz.aitu.digitalcontent.reactive.service.ReactivePurchaseService;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/purchases")
+@CrossOrigin(origins = "*")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactivePurchaseController {
+
+    private final ReactivePurchaseService service;
+
+    @Autowired
+    public ReactivePurchaseController(ReactivePurchaseService service) {
+        this.service = service;
+    }
+
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Publisher<?> getAllPurchases(@RequestParam(required = false) String after,
+                                        @RequestParam(required = false) Integer limit) {
+        if (after != null || limit != null) {
+            return service.getPurchasePage(after, limit);
+        }
+        return service.getAllPurchases();
+    }
+
+    @GetMapping("/{id}")
+    public Mono<Purchase> getPurchaseById(@PathVariable int id) {
+        return service.getPurchaseById(id);
+    }
+
+    @GetMapping(value = "/user/{userId}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Publisher<?> getPurchasesByUserId(@PathVariable int userId,
+                                             @RequestParam(required = false) String after,
+                                             @RequestParam(required = false) Integer limit) {
+        if (after != null || limit != null) {
+            return service.getPurchasePageByUserId(userId, after, limit);
+        }
+        return service.getPurchasesByUserId(userId);
+    }
+
+    // No write-behind mode here: the insert does not block a thread, so there is nothing to offload
+    @PostMapping
+    public Mono<ResponseEntity<Purchase>> createPurchase(@RequestBody Purchase purchase) {
+        return service.createPurchase(purchase)
+                .map(created -> ResponseEntity.status(HttpStatus.CREATED).body(created));
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deletePurchase(@PathVariable int id) {
+        return service.deletePurchase(id).then(Mono.just(ResponseEntity.noContent().build()));
+    }
+}
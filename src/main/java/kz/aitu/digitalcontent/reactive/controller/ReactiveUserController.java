@@ -0,0 +1,56 @@
+package kz.aitu.digitalcontent.reactive.controller;
+
+import kz.aitu.digitalcontent.model.User;
+import kz.aitu.digitalcontent.reactive.service.ReactiveUserService;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/users")
+@CrossOrigin(origins = "*")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveUserController {
+
+    private final ReactiveUserService service;
+
+    @Autowired
+    public ReactiveUserController(ReactiveUserService service) {
+        this.service = service;
+    }
+
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Publisher<?> getAllUsers(@RequestParam(required = false) String after,
+                                    @RequestParam(required = false) Integer limit) {
+        if (after != null || limit != null) {
+            return service.getUserPage(after, limit);
+        }
+        return service.getAllUsers();
+    }
+
+    @GetMapping("/{id}")
+    public Mono<User> getUserById(@PathVariable int id) {
+        return service.getUserById(id);
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<User>> createUser(@RequestBody User user) {
+        return service.createUser(user)
+                .map(created -> ResponseEntity.status(HttpStatus.CREATED).body(created));
+    }
+
+    @PutMapping("/{id}")
+    public Mono<User> updateUser(@PathVariable int id, @RequestBody User user) {
+        return service.updateUser(id, user);
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteUser(@PathVariable int id) {
+        return service.deleteUser(id).then(Mono.just(ResponseEntity.noContent().build()));
+    }
+}
@@ -0,0 +1,59 @@
+package kz.aitu.digitalcontent.reactive.repository;
+
+import io.r2dbc.postgresql.api.PostgresqlException;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.R2dbcException;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.function.BiFunction;
+
+final class R2dbcSupport {
+
+    static final String FOREIGN_KEY_VIOLATION = "23503";
+    static final String UNIQUE_VIOLATION = "23505";
+
+    private R2dbcSupport() {}
+
+    static Statement bindNullable(Statement stmt, int index, Object value, Class<?> type) {
+        return value != null ? stmt.bind(index, value) : stmt.bindNull(index, type);
+    }
+
+    // One statement with a binding per row; the driver pipelines them in a single round trip
+    static <T> Flux<Result> executeBatch(Connection conn, String sql, List<T> rows,
+                                         BiFunction<Statement, T, Statement> binder) {
+        Statement stmt = conn.createStatement(sql);
+        for (int i = 0; i < rows.size(); i++) {
+            if (i > 0) {
+                stmt.add();
+            }
+            binder.apply(stmt, rows.get(i));
+        }
+        return Flux.from(stmt.execute());
+    }
+
+    static boolean hasSqlState(Throwable error, String sqlState) {
+        R2dbcException driverError = driverError(error);
+        return driverError != null && sqlState.equals(driverError.getSqlState());
+    }
+
+    static String constraintOf(Throwable error) {
+        R2dbcException driverError = driverError(error);
+        if (driverError instanceof PostgresqlException) {
+            return ((PostgresqlException) driverError).getErrorDetails().getConstraintName().orElse(null);
+        }
+        return null;
+    }
+
+    // DatabaseClient wraps driver errors in Spring's DataAccessException; the SQLSTATE is on the cause
+    private static R2dbcException driverError(Throwable error) {
+        for (Throwable current = error; current != null; current = current.getCause()) {
+            if (current instanceof R2dbcException) {
+                return (R2dbcException) current;
+            }
+        }
+        return null;
+    }
+}
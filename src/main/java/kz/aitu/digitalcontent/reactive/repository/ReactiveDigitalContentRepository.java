@@ -0,0 +1,296 @@
+package kz.aitu.digitalcontent.reactive.repository;
+
+import io.r2dbc.spi.Readable;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import kz.aitu.digitalcontent.exception.DatabaseOperationException;
+import kz.aitu.digitalcontent.model.*;
+import kz.aitu.digitalcontent.patterns.DigitalContentFactory;
+import kz.aitu.digitalcontent.patterns.LoggerService;
+import kz.aitu.digitalcontent.reactive.repository.interfaces.ReactiveCrudRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveDigitalContentRepository implements ReactiveCrudRepository<DigitalContent> {
+
+    // Same column list as the blocking repository, so search_vector is never read
+    private static final String COLUMNS =
+            "id, name, release_year, available, content_type, description, " +
+            "creator_country, creator_bio, rentable, duration_minutes, track_count";
+
+    private static final String SEARCH_SQL =
+            "SELECT " + COLUMNS + ", ts_rank(search_vector, query) AS rank " +
+            "FROM digital_content, websearch_to_tsquery('english', $1) AS query " +
+            "WHERE search_vector @@ query OR name ILIKE $2 " +
+            "ORDER BY rank DESC, similarity(name, $1) DESC, id " +
+            "LIMIT $3";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO digital_content (name, release_year, available, content_type, " +
+            "description, creator_country, creator_bio, rentable, duration_minutes, track_count) " +
+            "VALUES ($1, $2, $3, $4, $5, $6, $7, $8, $9, $10) RETURNING id";
+
+    private static final String UPDATE_SQL =
+            "UPDATE digital_content SET name = $1, release_year = $2, available = $3, " +
+            "description = $4, creator_country = $5, creator_bio = $6, " +
+            "rentable = $7, duration_minutes = $8, track_count = $9 WHERE id = $10";
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+    private final LoggerService logger = LoggerService.getInstance();
+    private final int batchSize;
+    private final int fetchSize;
+
+    @Autowired
+    public ReactiveDigitalContentRepository(DatabaseClient databaseClient,
+                                            TransactionalOperator transactionalOperator,
+                                            @Value("${db.batch.chunk-size:500}") int batchSize,
+                                            @Value("${db.fetch-size:500}") int fetchSize) {
+        this.databaseClient = databaseClient;
+        this.transactionalOperator = transactionalOperator;
+        this.batchSize = Math.max(1, batchSize);
+        this.fetchSize = Math.max(1, fetchSize);
+    }
+
+    @Override
+    public Mono<DigitalContent> create(DigitalContent content) {
+        return databaseClient.sql(INSERT_SQL)
+                .filter(stmt -> bindInsert(stmt, content))
+                .map(row -> row.get(0, Integer.class))
+                .one()
+                .map(id -> {
+                    content.setId(id);
+                    logger.info("Created {}: {}", content.getEntityType(), content.getName());
+                    return content;
+                })
+                .onErrorMap(e -> failed("create", e));
+    }
+
+    @Override
+    public Flux<DigitalContent> createAll(List<DigitalContent> contents) {
+        if (contents.isEmpty()) {
+            return Flux.empty();
+        }
+
+        Flux<DigitalContent> inserted = Flux.fromIterable(contents)
+                .buffer(batchSize)
+                .concatMap(chunk -> databaseClient.inConnectionMany(conn ->
+                        R2dbcSupport.executeBatch(conn, INSERT_SQL, chunk, this::bindInsert)
+                                .concatMap(result -> result.map(row -> row.get(0, Integer.class)))
+                                // Ids come back in binding order
+                                .zipWith(Flux.fromIterable(chunk), (id, content) -> {
+                                    content.setId(id);
+                                    return content;
+                                })));
+
+        return transactionalOperator.transactional(inserted)
+                .doOnComplete(() -> logger.info("Batch created content: {} rows", contents.size()))
+                .onErrorMap(e -> failed("createAll", e));
+    }
+
+    @Override
+    public Flux<DigitalContent> getAll() {
+        return stream("SELECT " + COLUMNS + " FROM digital_content ORDER BY id", "getAll");
+    }
+
+    // Served by the partial index on available rows
+    public Flux<DigitalContent> getAvailable() {
+        return stream("SELECT " + COLUMNS + " FROM digital_content WHERE available ORDER BY id", "getAvailable");
+    }
+
+    @Override
+    public Flux<DigitalContent> getPage(int afterId, int limit) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM digital_content WHERE id > $1 ORDER BY id LIMIT $2")
+                .bind(0, afterId)
+                .bind(1, limit)
+                .map(this::mapRow)
+                .all()
+                .onErrorMap(e -> new DatabaseOperationException("getPage", e));
+    }
+
+    public Flux<DigitalContent> getAvailablePage(int afterId, int limit) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM digital_content " +
+                        "WHERE available AND id > $1 ORDER BY id LIMIT $2")
+                .bind(0, afterId)
+                .bind(1, limit)
+                .map(this::mapRow)
+                .all()
+                .onErrorMap(e -> new DatabaseOperationException("getAvailablePage", e));
+    }
+
+    @Override
+    public Mono<DigitalContent> getById(int id) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM digital_content WHERE id = $1")
+                .bind(0, id)
+                .map(this::mapRow)
+                .one()
+                .onErrorMap(e -> new DatabaseOperationException("getById", e));
+    }
+
+    // Same results as the servlet app's default name search
+    public Flux<DigitalContent> searchNames(String keyword, int limit) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM digital_content WHERE name ILIKE $1 ORDER BY id LIMIT $2")
+                .bind(0, "%" + escapeLike(keyword) + "%")
+                .bind(1, limit)
+                .map(this::mapRow)
+                .all()
+                .onErrorMap(e -> failed("searchNames", e));
+    }
+
+    public Flux<DigitalContent> search(String keyword, int limit) {
+        return databaseClient.sql(SEARCH_SQL)
+                .bind(0, keyword)
+                .bind(1, "%" + escapeLike(keyword) + "%")
+                .bind(2, limit)
+                .map(this::mapRow)
+                .all()
+                .onErrorMap(e -> failed("search", e));
+    }
+
+    @Override
+    public Mono<DigitalContent> update(int id, DigitalContent content) {
+        return databaseClient.sql(UPDATE_SQL + " RETURNING " + COLUMNS)
+                .filter(stmt -> bindUpdate(stmt, id, content))
+                .map(this::mapRow)
+                .one()
+                .doOnNext(updated -> logger.info("Updated content #{}", id))
+                .onErrorMap(e -> failed("update", e));
+    }
+
+    @Override
+    public Mono<Integer> updateAll(List<DigitalContent> contents) {
+        if (contents.isEmpty()) {
+            return Mono.just(0);
+        }
+
+        Mono<Integer> updated = Flux.fromIterable(contents)
+                .buffer(batchSize)
+                .concatMap(chunk -> databaseClient.inConnectionMany(conn ->
+                        R2dbcSupport.executeBatch(conn, UPDATE_SQL, chunk,
+                                        (stmt, content) -> bindUpdate(stmt, content.getId(), content))
+                                .concatMap(Result::getRowsUpdated)))
+                .reduce(0, (total, rows) -> total + rows.intValue());
+
+        return transactionalOperator.transactional(updated)
+                .doOnNext(total -> logger.info("Batch updated content: {} rows", total))
+                .onErrorMap(e -> failed("updateAll", e));
+    }
+
+    @Override
+    public Mono<Boolean> delete(int id) {
+        return databaseClient.sql("DELETE FROM digital_content WHERE id = $1")
+                .bind(0, id)
+                .fetch()
+                .rowsUpdated()
+                .map(rows -> {
+                    logger.info("Deleted content #{}", id);
+                    return rows > 0;
+                })
+                .onErrorMap(e -> failed("delete", e));
+    }
+
+    @Override
+    public Mono<Boolean> exists(int id) {
+        return databaseClient.sql("SELECT EXISTS (SELECT 1 FROM digital_content WHERE id = $1)")
+                .bind(0, id)
+                .map(row -> row.get(0, Boolean.class))
+                .one()
+                .onErrorMap(e -> new DatabaseOperationException("exists", e));
+    }
+
+    private Flux<DigitalContent> stream(String sql, String operation) {
+        return databaseClient.sql(sql)
+                .filter(stmt -> stmt.fetchSize(fetchSize))
+                .map(this::mapRow)
+                .all()
+                .onErrorMap(e -> failed(operation, e));
+    }
+
+    private Throwable failed(String operation, Throwable error) {
+        logger.error("Failed to {} content: {}", operation, error.getMessage());
+        return new DatabaseOperationException(operation, error);
+    }
+
+    private DigitalContent mapRow(Readable row) {
+        int id = row.get("id", Integer.class);
+        String name = row.get("name", String.class);
+        int releaseYear = row.get("release_year", Integer.class);
+        boolean available = row.get("available", Boolean.class);
+        String description = row.get("description", String.class);
+        Creator creator = new Creator(row.get("creator_country", String.class), row.get("creator_bio", String.class));
+
+        switch (row.get("content_type", String.class)) {
+            case "MOVIE":
+                Boolean rentable = row.get("rentable", Boolean.class);
+                Integer duration = row.get("duration_minutes", Integer.class);
+                return DigitalContentFactory.createMovie(id, name, releaseYear, available, creator, description,
+                        rentable != null && rentable, duration != null ? duration : 0);
+
+            case "MUSIC_ALBUM":
+                Integer trackCount = row.get("track_count", Integer.class);
+                return DigitalContentFactory.createMusicAlbum(id, name, releaseYear, available, creator, description,
+                        trackCount != null ? trackCount : 0);
+
+            default:
+                return new Game(id, name, releaseYear, available, creator, description);
+        }
+    }
+
+    private Statement bindInsert(Statement stmt, DigitalContent content) {
+        stmt.bind(0, content.getName())
+                .bind(1, content.getReleaseYear())
+                .bind(2, content.isAvailable())
+                .bind(3, content.getEntityType());
+        R2dbcSupport.bindNullable(stmt, 4, content.getDescription(), String.class);
+        bindCreator(stmt, content.getCreator(), 5);
+        return bindTypeSpecificFields(stmt, content, 7);
+    }
+
+    private Statement bindUpdate(Statement stmt, int id, DigitalContent content) {
+        stmt.bind(0, content.getName())
+                .bind(1, content.getReleaseYear())
+                .bind(2, content.isAvailable());
+        R2dbcSupport.bindNullable(stmt, 3, content.getDescription(), String.class);
+        bindCreator(stmt, content.getCreator(), 4);
+        return bindTypeSpecificFields(stmt, content, 6)
+                .bind(9, id);
+    }
+
+    private void bindCreator(Statement stmt, Creator creator, int index) {
+        R2dbcSupport.bindNullable(stmt, index, creator != null ? creator.getCountry() : null, String.class);
+        R2dbcSupport.bindNullable(stmt, index + 1, creator != null ? creator.getBio() : null, String.class);
+    }
+
+    // Binds rentable, duration_minutes and track_count starting at the given index
+    private Statement bindTypeSpecificFields(Statement stmt, DigitalContent content, int index) {
+        Boolean rentable = null;
+        Integer duration = null;
+        Integer trackCount = null;
+
+        if (content instanceof Movie) {
+            Movie movie = (Movie) content;
+            rentable = movie.isRentable();
+            duration = movie.getDurationMinutes();
+        } else if (content instanceof MusicAlbum) {
+            trackCount = ((MusicAlbum) content).getCountTracks();
+        }
+
+        R2dbcSupport.bindNullable(stmt, index, rentable, Boolean.class);
+        R2dbcSupport.bindNullable(stmt, index + 1, duration, Integer.class);
+        return R2dbcSupport.bindNullable(stmt, index + 2, trackCount, Integer.class);
+    }
+
+    private String escapeLike(String keyword) {
+        return keyword.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
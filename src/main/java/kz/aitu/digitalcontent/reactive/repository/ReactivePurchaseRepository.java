@@ -0,0 +1,225 @@
+package kz.aitu.digitalcontent.reactive.repository;
+
+import io.r2dbc.spi.Readable;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import kz.aitu.digitalcontent.exception.DatabaseOperationException;
+import kz.aitu.digitalcontent.exception.ResourceNotFoundException;
+import kz.aitu.digitalcontent.model.Purchase;
+import kz.aitu.digitalcontent.patterns.LoggerService;
+import kz.aitu.digitalcontent.reactive.repository.interfaces.ReactiveCrudRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactivePurchaseRepository implements ReactiveCrudRepository<Purchase> {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO purchases (user_id, content_id, purchase_date, price_paid) " +
+            "VALUES ($1, $2, $3, $4) RETURNING purchase_id";
+
+    private static final String UPDATE_SQL =
+            "UPDATE purchases SET user_id = $1, content_id = $2, " +
+            "purchase_date = $3, price_paid = $4 WHERE purchase_id = $5";
+
+    private static final String USER_FK = "fk_purchases_user";
+    private static final String CONTENT_FK = "fk_purchases_content";
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+    private final LoggerService logger = LoggerService.getInstance();
+    private final int batchSize;
+    private final int fetchSize;
+
+    @Autowired
+    public ReactivePurchaseRepository(DatabaseClient databaseClient, TransactionalOperator transactionalOperator,
+                                      @Value("${db.batch.chunk-size:500}") int batchSize,
+                                      @Value("${db.fetch-size:500}") int fetchSize) {
+        this.databaseClient = databaseClient;
+        this.transactionalOperator = transactionalOperator;
+        this.batchSize = Math.max(1, batchSize);
+        this.fetchSize = Math.max(1, fetchSize);
+    }
+
+    // The foreign keys check that user and content exist, so no pre-check queries are needed
+    @Override
+    public Mono<Purchase> create(Purchase purchase) {
+        return databaseClient.sql(INSERT_SQL)
+                .filter(stmt -> bindInsert(stmt, purchase))
+                .map(row -> row.get(0, Integer.class))
+                .one()
+                .map(id -> {
+                    purchase.setPurchaseId(id);
+                    logger.info("Created purchase #{}", id);
+                    return purchase;
+                })
+                .onErrorMap(e -> translate(e, purchase, "create purchase"));
+    }
+
+    @Override
+    public Flux<Purchase> createAll(List<Purchase> purchases) {
+        if (purchases.isEmpty()) {
+            return Flux.empty();
+        }
+
+        Flux<Purchase> inserted = Flux.fromIterable(purchases)
+                .buffer(batchSize)
+                .concatMap(chunk -> databaseClient.inConnectionMany(conn ->
+                        R2dbcSupport.executeBatch(conn, INSERT_SQL, chunk, this::bindInsert)
+                                .concatMap(result -> result.map(row -> row.get(0, Integer.class)))
+                                .zipWith(Flux.fromIterable(chunk), (id, purchase) -> {
+                                    purchase.setPurchaseId(id);
+                                    return purchase;
+                                })));
+
+        return transactionalOperator.transactional(inserted)
+                .doOnComplete(() -> logger.info("Batch created purchases: {} rows", purchases.size()))
+                .onErrorMap(e -> translate(e, null, "createAll purchases"));
+    }
+
+    @Override
+    public Flux<Purchase> getAll() {
+        return databaseClient.sql("SELECT * FROM purchases ORDER BY purchase_id")
+                .filter(stmt -> stmt.fetchSize(fetchSize))
+                .map(this::mapRow)
+                .all()
+                .onErrorMap(e -> new DatabaseOperationException("getAll purchases", e));
+    }
+
+    @Override
+    public Flux<Purchase> getPage(int afterId, int limit) {
+        return databaseClient.sql("SELECT * FROM purchases WHERE purchase_id > $1 ORDER BY purchase_id LIMIT $2")
+                .bind(0, afterId)
+                .bind(1, limit)
+                .map(this::mapRow)
+                .all()
+                .onErrorMap(e -> new DatabaseOperationException("getPage purchases", e));
+    }
+
+    @Override
+    public Mono<Purchase> getById(int id) {
+        return databaseClient.sql("SELECT * FROM purchases WHERE purchase_id = $1")
+                .bind(0, id)
+                .map(this::mapRow)
+                .one()
+                .onErrorMap(e -> new DatabaseOperationException("getById purchase", e));
+    }
+
+    @Override
+    public Mono<Purchase> update(int id, Purchase purchase) {
+        return databaseClient.sql(UPDATE_SQL + " RETURNING *")
+                .filter(stmt -> bindUpdate(stmt, id, purchase))
+                .map(this::mapRow)
+                .one()
+                .doOnNext(updated -> logger.info("Updated purchase #{}", id))
+                .onErrorMap(e -> translate(e, purchase, "update purchase"));
+    }
+
+    @Override
+    public Mono<Integer> updateAll(List<Purchase> purchases) {
+        if (purchases.isEmpty()) {
+            return Mono.just(0);
+        }
+
+        Mono<Integer> updated = Flux.fromIterable(purchases)
+                .buffer(batchSize)
+                .concatMap(chunk -> databaseClient.inConnectionMany(conn ->
+                        R2dbcSupport.executeBatch(conn, UPDATE_SQL, chunk,
+                                        (stmt, purchase) -> bindUpdate(stmt, purchase.getPurchaseId(), purchase))
+                                .concatMap(Result::getRowsUpdated)))
+                .reduce(0, (total, rows) -> total + rows.intValue());
+
+        return transactionalOperator.transactional(updated)
+                .doOnNext(total -> logger.info("Batch updated purchases: {} rows", total))
+                .onErrorMap(e -> translate(e, null, "updateAll purchases"));
+    }
+
+    @Override
+    public Mono<Boolean> delete(int id) {
+        return databaseClient.sql("DELETE FROM purchases WHERE purchase_id = $1")
+                .bind(0, id)
+                .fetch()
+                .rowsUpdated()
+                .map(rows -> {
+                    logger.info("Deleted purchase #{}", id);
+                    return rows > 0;
+                })
+                .onErrorMap(e -> new DatabaseOperationException("delete purchase", e));
+    }
+
+    @Override
+    public Mono<Boolean> exists(int id) {
+        return databaseClient.sql("SELECT EXISTS (SELECT 1 FROM purchases WHERE purchase_id = $1)")
+                .bind(0, id)
+                .map(row -> row.get(0, Boolean.class))
+                .one()
+                .onErrorMap(e -> new DatabaseOperationException("exists purchase", e));
+    }
+
+    public Flux<Purchase> findByUserId(int userId) {
+        return databaseClient.sql("SELECT * FROM purchases WHERE user_id = $1 ORDER BY purchase_id")
+                .bind(0, userId)
+                .filter(stmt -> stmt.fetchSize(fetchSize))
+                .map(this::mapRow)
+                .all()
+                .onErrorMap(e -> new DatabaseOperationException("findByUserId", e));
+    }
+
+    public Flux<Purchase> findByUserId(int userId, int afterId, int limit) {
+        return databaseClient.sql("SELECT * FROM purchases WHERE user_id = $1 AND purchase_id > $2 " +
+                        "ORDER BY purchase_id LIMIT $3")
+                .bind(0, userId)
+                .bind(1, afterId)
+                .bind(2, limit)
+                .map(this::mapRow)
+                .all()
+                .onErrorMap(e -> new DatabaseOperationException("findByUserId page", e));
+    }
+
+    // Turns a foreign key violation into the same not-found error the blocking API returns
+    private Throwable translate(Throwable error, Purchase purchase, String operation) {
+        if (purchase != null && R2dbcSupport.hasSqlState(error, R2dbcSupport.FOREIGN_KEY_VIOLATION)) {
+            String constraint = R2dbcSupport.constraintOf(error);
+            if (USER_FK.equals(constraint)) {
+                return new ResourceNotFoundException("User", purchase.getUserId());
+            }
+            if (CONTENT_FK.equals(constraint)) {
+                return new ResourceNotFoundException("DigitalContent", purchase.getContentId());
+            }
+        }
+        logger.error("Failed to {}: {}", operation, error.getMessage());
+        return new DatabaseOperationException(operation, error);
+    }
+
+    private Purchase mapRow(Readable row) {
+        return new Purchase(
+                row.get("purchase_id", Integer.class),
+                row.get("user_id", Integer.class),
+                row.get("content_id", Integer.class),
+                row.get("purchase_date", LocalDate.class),
+                row.get("price_paid", Double.class)
+        );
+    }
+
+    private Statement bindInsert(Statement stmt, Purchase purchase) {
+        return stmt.bind(0, purchase.getUserId())
+                .bind(1, purchase.getContentId())
+                .bind(2, purchase.getPurchaseDate())
+                .bind(3, purchase.getPricePaid());
+    }
+
+    private Statement bindUpdate(Statement stmt, int id, Purchase purchase) {
+        return bindInsert(stmt, purchase)
+                .bind(4, id);
+    }
+}
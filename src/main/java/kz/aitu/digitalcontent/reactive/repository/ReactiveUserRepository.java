@@ -0,0 +1,183 @@
+package kz.aitu.digitalcontent.reactive.repository;
+
+import io.r2dbc.spi.Readable;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import kz.aitu.digitalcontent.exception.DatabaseOperationException;
+import kz.aitu.digitalcontent.exception.DuplicateResourceException;
+import kz.aitu.digitalcontent.model.User;
+import kz.aitu.digitalcontent.patterns.LoggerService;
+import kz.aitu.digitalcontent.reactive.repository.interfaces.ReactiveCrudRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveUserRepository implements ReactiveCrudRepository<User> {
+
+    private static final String INSERT_SQL = "INSERT INTO users (name, email) VALUES ($1, $2) RETURNING id";
+
+    private static final String UPDATE_SQL = "UPDATE users SET name = $1, email = $2 WHERE id = $3";
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+    private final LoggerService logger = LoggerService.getInstance();
+    private final int batchSize;
+    private final int fetchSize;
+
+    @Autowired
+    public ReactiveUserRepository(DatabaseClient databaseClient, TransactionalOperator transactionalOperator,
+                                  @Value("${db.batch.chunk-size:500}") int batchSize,
+                                  @Value("${db.fetch-size:500}") int fetchSize) {
+        this.databaseClient = databaseClient;
+        this.transactionalOperator = transactionalOperator;
+        this.batchSize = Math.max(1, batchSize);
+        this.fetchSize = Math.max(1, fetchSize);
+    }
+
+    @Override
+    public Mono<User> create(User user) {
+        return databaseClient.sql(INSERT_SQL)
+                .filter(stmt -> bindInsert(stmt, user))
+                .map(row -> row.get(0, Integer.class))
+                .one()
+                .map(id -> {
+                    user.setId(id);
+                    logger.info("Created user: {}", user.getName());
+                    return user;
+                })
+                .onErrorMap(e -> translate(e, user.getEmail(), "create user"));
+    }
+
+    @Override
+    public Flux<User> createAll(List<User> users) {
+        if (users.isEmpty()) {
+            return Flux.empty();
+        }
+
+        Flux<User> inserted = Flux.fromIterable(users)
+                .buffer(batchSize)
+                .concatMap(chunk -> databaseClient.inConnectionMany(conn ->
+                        R2dbcSupport.executeBatch(conn, INSERT_SQL, chunk, this::bindInsert)
+                                .concatMap(result -> result.map(row -> row.get(0, Integer.class)))
+                                // Ids come back in binding order
+                                .zipWith(Flux.fromIterable(chunk), (id, user) -> {
+                                    user.setId(id);
+                                    return user;
+                                })));
+
+        return transactionalOperator.transactional(inserted)
+                .doOnComplete(() -> logger.info("Batch created users: {} rows", users.size()))
+                .onErrorMap(e -> translate(e, "(batch)", "createAll users"));
+    }
+
+    @Override
+    public Flux<User> getAll() {
+        return databaseClient.sql("SELECT * FROM users ORDER BY id")
+                .filter(stmt -> stmt.fetchSize(fetchSize))
+                .map(this::mapRow)
+                .all()
+                .onErrorMap(e -> new DatabaseOperationException("getAll users", e));
+    }
+
+    @Override
+    public Flux<User> getPage(int afterId, int limit) {
+        return databaseClient.sql("SELECT * FROM users WHERE id > $1 ORDER BY id LIMIT $2")
+                .bind(0, afterId)
+                .bind(1, limit)
+                .map(this::mapRow)
+                .all()
+                .onErrorMap(e -> new DatabaseOperationException("getPage users", e));
+    }
+
+    @Override
+    public Mono<User> getById(int id) {
+        return databaseClient.sql("SELECT * FROM users WHERE id = $1")
+                .bind(0, id)
+                .map(this::mapRow)
+                .one()
+                .onErrorMap(e -> new DatabaseOperationException("getById user", e));
+    }
+
+    @Override
+    public Mono<User> update(int id, User user) {
+        return databaseClient.sql(UPDATE_SQL + " RETURNING *")
+                .filter(stmt -> bindUpdate(stmt, id, user))
+                .map(this::mapRow)
+                .one()
+                .doOnNext(updated -> logger.info("Updated user #{}", id))
+                .onErrorMap(e -> translate(e, user.getEmail(), "update user"));
+    }
+
+    @Override
+    public Mono<Integer> updateAll(List<User> users) {
+        if (users.isEmpty()) {
+            return Mono.just(0);
+        }
+
+        Mono<Integer> updated = Flux.fromIterable(users)
+                .buffer(batchSize)
+                .concatMap(chunk -> databaseClient.inConnectionMany(conn ->
+                        R2dbcSupport.executeBatch(conn, UPDATE_SQL, chunk,
+                                        (stmt, user) -> bindUpdate(stmt, user.getId(), user))
+                                .concatMap(Result::getRowsUpdated)))
+                .reduce(0, (total, rows) -> total + rows.intValue());
+
+        return transactionalOperator.transactional(updated)
+                .doOnNext(total -> logger.info("Batch updated users: {} rows", total))
+                .onErrorMap(e -> translate(e, "(batch)", "updateAll users"));
+    }
+
+    @Override
+    public Mono<Boolean> delete(int id) {
+        return databaseClient.sql("DELETE FROM users WHERE id = $1")
+                .bind(0, id)
+                .fetch()
+                .rowsUpdated()
+                .map(rows -> {
+                    logger.info("Deleted user #{}", id);
+                    return rows > 0;
+                })
+                .onErrorMap(e -> new DatabaseOperationException("delete user", e));
+    }
+
+    @Override
+    public Mono<Boolean> exists(int id) {
+        return databaseClient.sql("SELECT EXISTS (SELECT 1 FROM users WHERE id = $1)")
+                .bind(0, id)
+                .map(row -> row.get(0, Boolean.class))
+                .one()
+                .onErrorMap(e -> new DatabaseOperationException("exists user", e));
+    }
+
+    // The UNIQUE constraint on email is the duplicate check; no lookup query beforehand
+    private Throwable translate(Throwable error, String email, String operation) {
+        if (R2dbcSupport.hasSqlState(error, R2dbcSupport.UNIQUE_VIOLATION)) {
+            return new DuplicateResourceException("User", email);
+        }
+        logger.error("Failed to {}: {}", operation, error.getMessage());
+        return new DatabaseOperationException(operation, error);
+    }
+
+    private User mapRow(Readable row) {
+        return new User(row.get("id", Integer.class), row.get("name", String.class), row.get("email", String.class));
+    }
+
+    private Statement bindInsert(Statement stmt, User user) {
+        return stmt.bind(0, user.getName())
+                .bind(1, user.getEmail());
+    }
+
+    private Statement bindUpdate(Statement stmt, int id, User user) {
+        return bindInsert(stmt, user)
+                .bind(2, id);
+    }
+}
@@ -0,0 +1,31 @@
+package kz.aitu.digitalcontent.reactive.repository.interfaces;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+// Non-blocking counterpart of CrudRepository; nothing touches the database until subscription
+public interface ReactiveCrudRepository<T> {
+
+    Mono<T> create(T entity);
+
+    Flux<T> createAll(List<T> entities);
+
+    // Rows are pulled from the server in fetch-size chunks as the subscriber requests them
+    Flux<T> getAll();
+
+    // Keyset page: rows with id > afterId in id order
+    Flux<T> getPage(int afterId, int limit);
+
+    Mono<T> getById(int id);
+
+    // Empty when no row has the given id
+    Mono<T> update(int id, T entity);
+
+    Mono<Integer> updateAll(List<T> entities);
+
+    Mono<Boolean> delete(int id);
+
+    Mono<Boolean> exists(int id);
+}
@@ -0,0 +1,92 @@
+package kz.aitu.digitalcontent.reactive.service;
+
+import kz.aitu.digitalcontent.dto.PageDTO;
+import kz.aitu.digitalcontent.exception.InvalidInputException;
+import kz.aitu.digitalcontent.exception.ResourceNotFoundException;
+import kz.aitu.digitalcontent.model.DigitalContent;
+import kz.aitu.digitalcontent.reactive.repository.ReactiveDigitalContentRepository;
+import kz.aitu.digitalcontent.utils.PageCursor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Reads go straight to the database: the in-memory indexes and caches live in the blocking app
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveDigitalContentService {
+
+    private final ReactiveDigitalContentRepository repository;
+
+    @Autowired
+    public ReactiveDigitalContentService(ReactiveDigitalContentRepository repository) {
+        this.repository = repository;
+    }
+
+    public Mono<DigitalContent> createContent(DigitalContent content) {
+        if (content == null) {
+            throw new InvalidInputException("Content cannot be null");
+        }
+
+        content.validate();
+        return repository.create(content);
+    }
+
+    public Flux<DigitalContent> getAllContent() {
+        return repository.getAll();
+    }
+
+    public Mono<PageDTO<DigitalContent>> getContentPage(String after, Integer limit) {
+        int pageSize = PageCursor.checkLimit(limit);
+        return repository.getPage(PageCursor.decode(after), pageSize + 1)
+                .collectList()
+                .map(rows -> PageDTO.fromRows(rows, pageSize, DigitalContent::getId));
+    }
+
+    public Mono<DigitalContent> getContentById(int id) {
+        return repository.getById(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("DigitalContent", id)));
+    }
+
+    public Mono<DigitalContent> updateContent(int id, DigitalContent content) {
+        content.validate();
+
+        return repository.update(id, content)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("DigitalContent", id)));
+    }
+
+    public Mono<Void> deleteContent(int id) {
+        return repository.delete(id)
+                .flatMap(deleted -> deleted
+                        ? Mono.<Void>empty()
+                        : Mono.error(new ResourceNotFoundException("DigitalContent", id)));
+    }
+
+    public Flux<DigitalContent> searchByName(String keyword, Integer limit) {
+        if (keyword == null || keyword.trim().isEmpty()) {
+            throw new InvalidInputException("Search keyword cannot be empty");
+        }
+
+        return repository.searchNames(keyword.trim(), PageCursor.checkLimit(limit));
+    }
+
+    public Flux<DigitalContent> searchFullText(String keyword, Integer limit) {
+        if (keyword == null || keyword.trim().isEmpty()) {
+            throw new InvalidInputException("Search keyword cannot be empty");
+        }
+
+        return repository.search(keyword.trim(), PageCursor.checkLimit(limit));
+    }
+
+    public Flux<DigitalContent> getAvailableContent() {
+        return repository.getAvailable();
+    }
+
+    public Mono<PageDTO<DigitalContent>> getAvailablePage(String after, Integer limit) {
+        int pageSize = PageCursor.checkLimit(limit);
+        return repository.getAvailablePage(PageCursor.decode(after), pageSize + 1)
+                .collectList()
+                .map(rows -> PageDTO.fromRows(rows, pageSize, DigitalContent::getId));
+    }
+}
@@ -0,0 +1,83 @@
+package kz.aitu.digitalcontent.reactive.service;
+
+import kz.aitu.digitalcontent.dto.PageDTO;
+import kz.aitu.digitalcontent.exception.InvalidInputException;
+import kz.aitu.digitalcontent.exception.ResourceNotFoundException;
+import kz.aitu.digitalcontent.model.Purchase;
+import kz.aitu.digitalcontent.reactive.repository.ReactivePurchaseRepository;
+import kz.aitu.digitalcontent.reactive.repository.ReactiveUserRepository;
+import kz.aitu.digitalcontent.utils.PageCursor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactivePurchaseService {
+
+    private final ReactivePurchaseRepository purchaseRepository;
+    private final ReactiveUserRepository userRepository;
+
+    @Autowired
+    public ReactivePurchaseService(ReactivePurchaseRepository purchaseRepository,
+                                   ReactiveUserRepository userRepository) {
+        this.purchaseRepository = purchaseRepository;
+        this.userRepository = userRepository;
+    }
+
+    public Mono<Purchase> createPurchase(Purchase purchase) {
+        if (purchase == null) {
+            throw new InvalidInputException("Purchase cannot be null");
+        }
+
+        purchase.validate();
+        return purchaseRepository.create(purchase);
+    }
+
+    public Flux<Purchase> getAllPurchases() {
+        return purchaseRepository.getAll();
+    }
+
+    public Mono<PageDTO<Purchase>> getPurchasePage(String after, Integer limit) {
+        int pageSize = PageCursor.checkLimit(limit);
+        return purchaseRepository.getPage(PageCursor.decode(after), pageSize + 1)
+                .collectList()
+                .map(rows -> PageDTO.fromRows(rows, pageSize, Purchase::getPurchaseId));
+    }
+
+    public Mono<Purchase> getPurchaseById(int id) {
+        return purchaseRepository.getById(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Purchase", id)));
+    }
+
+    public Flux<Purchase> getPurchasesByUserId(int userId) {
+        return requireUser(userId)
+                .thenMany(purchaseRepository.findByUserId(userId));
+    }
+
+    public Mono<PageDTO<Purchase>> getPurchasePageByUserId(int userId, String after, Integer limit) {
+        int pageSize = PageCursor.checkLimit(limit);
+        int afterId = PageCursor.decode(after);
+
+        return requireUser(userId)
+                .thenMany(purchaseRepository.findByUserId(userId, afterId, pageSize + 1))
+                .collectList()
+                .map(rows -> PageDTO.fromRows(rows, pageSize, Purchase::getPurchaseId));
+    }
+
+    public Mono<Void> deletePurchase(int id) {
+        return purchaseRepository.delete(id)
+                .flatMap(deleted -> deleted
+                        ? Mono.<Void>empty()
+                        : Mono.error(new ResourceNotFoundException("Purchase", id)));
+    }
+
+    private Mono<Void> requireUser(int userId) {
+        return userRepository.exists(userId)
+                .flatMap(exists -> exists
+                        ? Mono.<Void>empty()
+                        : Mono.error(new ResourceNotFoundException("User", userId)));
+    }
+}
@@ -0,0 +1,65 @@
+package kz.aitu.digitalcontent.reactive.service;
+
+import kz.aitu.digitalcontent.dto.PageDTO;
+import kz.aitu.digitalcontent.exception.InvalidInputException;
+import kz.aitu.digitalcontent.exception.ResourceNotFoundException;
+import kz.aitu.digitalcontent.model.User;
+import kz.aitu.digitalcontent.reactive.repository.ReactiveUserRepository;
+import kz.aitu.digitalcontent.utils.PageCursor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveUserService {
+
+    private final ReactiveUserRepository repository;
+
+    @Autowired
+    public ReactiveUserService(ReactiveUserRepository repository) {
+        this.repository = repository;
+    }
+
+    // Duplicate emails are rejected by the UNIQUE constraint, which the repository maps to 409
+    public Mono<User> createUser(User user) {
+        if (user == null) {
+            throw new InvalidInputException("User cannot be null");
+        }
+
+        user.validate();
+        return repository.create(user);
+    }
+
+    public Flux<User> getAllUsers() {
+        return repository.getAll();
+    }
+
+    public Mono<PageDTO<User>> getUserPage(String after, Integer limit) {
+        int pageSize = PageCursor.checkLimit(limit);
+        return repository.getPage(PageCursor.decode(after), pageSize + 1)
+                .collectList()
+                .map(rows -> PageDTO.fromRows(rows, pageSize, User::getId));
+    }
+
+    public Mono<User> getUserById(int id) {
+        return repository.getById(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("User", id)));
+    }
+
+    public Mono<User> updateUser(int id, User user) {
+        user.validate();
+
+        return repository.update(id, user)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("User", id)));
+    }
+
+    public Mono<Void> deleteUser(int id) {
+        return repository.delete(id)
+                .flatMap(deleted -> deleted
+                        ? Mono.<Void>empty()
+                        : Mono.error(new ResourceNotFoundException("User", id)));
+    }
+}
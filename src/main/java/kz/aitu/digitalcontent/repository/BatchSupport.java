@@ -0,0 +1,24 @@
+package kz.aitu.digitalcontent.repository;
+
+import java.sql.Statement;
+
+final class BatchSupport {
+
+    private BatchSupport() {}
+
+    static int countAffected(int[] results) {
+        int count = 0;
+        for (int result : results) {
+            // SUCCESS_NO_INFO still means the row was written
+            count += result == Statement.SUCCESS_NO_INFO ? 1 : Math.max(result, 0);
+        }
+        return count;
+    }
+
+    static String summary(String action, int rows, long startNanos) {
+        long elapsedNanos = Math.max(1, System.nanoTime() - startNanos);
+        double rowsPerSecond = rows * 1_000_000_000.0 / elapsedNanos;
+        return String.format("%s %d rows in %d ms (%.0f rows/s)",
+                action, rows, elapsedNanos / 1_000_000, rowsPerSecond);
+    }
+}
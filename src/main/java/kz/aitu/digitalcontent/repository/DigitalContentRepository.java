@@ -1,17 +1,28 @@
 package kz.aitu.digitalcontent.repository;
 
+import kz.aitu.digitalcontent.dto.ContentField;
 import kz.aitu.digitalcontent.exception.DatabaseOperationException;
+import kz.aitu.digitalcontent.metrics.SqlTracking;
 import kz.aitu.digitalcontent.model.*;
 import kz.aitu.digitalcontent.patterns.DatabaseConfig;
-import kz.aitu.digitalcontent.patterns.DigitalContentFactory;
 import kz.aitu.digitalcontent.patterns.LoggerService;
 import kz.aitu.digitalcontent.repository.interfaces.CrudRepository;
+import kz.aitu.digitalcontent.repository.mapper.ContentRowMapper;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
 import org.springframework.stereotype.Repository;
 
+import java.nio.charset.StandardCharsets;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @Repository
 public class DigitalContentRepository implements CrudRepository<DigitalContent> {
@@ -19,42 +30,36 @@ public class DigitalContentRepository implements CrudRepository<DigitalContent>
     private final DatabaseConfig dbConfig = DatabaseConfig.getInstance();
     private final LoggerService logger = LoggerService.getInstance();
 
+    // Explicit list so reads never drag the generated search_vector column along
+    private static final String COLUMNS =
+            "id, name, release_year, available, content_type, description, " +
+            "creator_country, creator_bio, rentable, duration_minutes, track_count";
+
+    // Full-text matches on name/description/creator bio, plus substring matches on the name
+    // (served by the trigram index). LIMIT is pushed down so cost follows the number of hits.
+    private static final String SEARCH_SQL =
+            "SELECT " + COLUMNS + ", ts_rank(search_vector, query) AS rank " +
+            "FROM digital_content, websearch_to_tsquery('english', ?) AS query " +
+            "WHERE search_vector @@ query OR name ILIKE ? " +
+            "ORDER BY rank DESC, similarity(name, ?) DESC, id " +
+            "LIMIT ?";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO digital_content (name, release_year, available, content_type, " +
+            "description, creator_country, creator_bio, rentable, duration_minutes, track_count) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_SQL =
+            "UPDATE digital_content SET name = ?, release_year = ?, available = ?, " +
+            "description = ?, creator_country = ?, creator_bio = ?, " +
+            "rentable = ?, duration_minutes = ?, track_count = ? WHERE id = ?";
+
     @Override
     public DigitalContent create(DigitalContent content) {
-        String sql = "INSERT INTO digital_content (name, release_year, available, content_type, " +
-                "description, creator_country, creator_bio, rentable, duration_minutes, track_count) " +
-                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-
         try (Connection conn = dbConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-
-            stmt.setString(1, content.getName());
-            stmt.setInt(2, content.getReleaseYear());
-            stmt.setBoolean(3, content.isAvailable());
-            stmt.setString(4, content.getEntityType());
-            stmt.setString(5, content.getDescription());
-
-            Creator creator = content.getCreator();
-            stmt.setString(6, creator != null ? creator.getCountry() : null);
-            stmt.setString(7, creator != null ? creator.getBio() : null);
-
-            // Type-specific fields
-            if (content instanceof Movie) {
-                Movie movie = (Movie) content;
-                stmt.setBoolean(8, movie.isRentable());
-                stmt.setInt(9, movie.getDurationMinutes());
-                stmt.setNull(10, Types.INTEGER);
-            } else if (content instanceof MusicAlbum) {
-                MusicAlbum album = (MusicAlbum) content;
-                stmt.setNull(8, Types.BOOLEAN);
-                stmt.setNull(9, Types.INTEGER);
-                stmt.setInt(10, album.getCountTracks());
-            } else {
-                stmt.setNull(8, Types.BOOLEAN);
-                stmt.setNull(9, Types.INTEGER);
-                stmt.setNull(10, Types.INTEGER);
-            }
+             PreparedStatement stmt = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
 
+            bindInsert(stmt, content);
             stmt.executeUpdate();
 
             ResultSet generatedKeys = stmt.getGeneratedKeys();
@@ -62,113 +67,498 @@ public class DigitalContentRepository implements CrudRepository<DigitalContent>
                 content.setId(generatedKeys.getInt(1));
             }
 
-            logger.info("Created " + content.getEntityType() + ": " + content.getName());
+            logger.info("Created {}: {}", content.getEntityType(), content.getName());
             return content;
 
         } catch (SQLException e) {
-            logger.error("Failed to create content: " + e.getMessage());
+            logger.error("Failed to create content: {}", e.getMessage());
             throw new DatabaseOperationException("create", e);
         }
     }
 
+    @Override
+    public List<DigitalContent> createAll(List<DigitalContent> contents) {
+        if (contents.isEmpty()) {
+            return contents;
+        }
+
+        long start = System.nanoTime();
+        int chunkSize = dbConfig.getBatchSize();
+
+        try (Connection conn = dbConfig.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement stmt = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (int from = 0; from < contents.size(); from += chunkSize) {
+                    List<DigitalContent> chunk = contents.subList(from,
+                            Math.min(from + chunkSize, contents.size()));
+
+                    for (DigitalContent content : chunk) {
+                        bindInsert(stmt, content);
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+
+                    // Keys come back in insertion order
+                    ResultSet generatedKeys = stmt.getGeneratedKeys();
+                    for (DigitalContent content : chunk) {
+                        if (generatedKeys.next()) {
+                            content.setId(generatedKeys.getInt(1));
+                        }
+                    }
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+
+            logger.info(() -> BatchSupport.summary("Batch created content:", contents.size(), start));
+            return contents;
+
+        } catch (SQLException e) {
+            logger.error("Failed to batch create content: {}", e.getMessage());
+            throw new DatabaseOperationException("createAll", e);
+        }
+    }
+
+    public long copyIn(Iterator<DigitalContent> contents) {
+        String sql = "COPY digital_content (name, release_year, available, content_type, " +
+                "description, creator_country, creator_bio, rentable, duration_minutes, track_count) " +
+                "FROM STDIN WITH (FORMAT csv)";
+        long start = System.nanoTime();
+
+        try (Connection conn = dbConfig.getConnection()) {
+            long copyStart = System.nanoTime();
+            CopyIn copyIn = conn.unwrap(PGConnection.class).getCopyAPI().copyIn(sql);
+            // Time spent in the driver only, not reading and validating the upload
+            long copyNanos = System.nanoTime() - copyStart;
+
+            try {
+                StringBuilder row = new StringBuilder(256);
+                while (contents.hasNext()) {
+                    row.setLength(0);
+                    appendCsvRow(row, contents.next());
+                    byte[] bytes = row.toString().getBytes(StandardCharsets.UTF_8);
+                    long writeStart = System.nanoTime();
+                    copyIn.writeToCopy(bytes, 0, bytes.length);
+                    copyNanos += System.nanoTime() - writeStart;
+                }
+
+                long endStart = System.nanoTime();
+                long copied = copyIn.endCopy();
+                copyNanos += System.nanoTime() - endStart;
+                logger.info(() -> BatchSupport.summary("Copied content:", (int) copied, start));
+                return copied;
+            } finally {
+                if (copyIn.isActive()) {
+                    copyIn.cancelCopy();
+                }
+                // unwrap() hands out the raw driver connection, so SqlTracking never sees the COPY
+                SqlTracking.recordStatement(sql, copyNanos);
+            }
+
+        } catch (SQLException e) {
+            logger.error("Failed to copy content: {}", e.getMessage());
+            throw new DatabaseOperationException("copyIn", e);
+        }
+    }
+
     @Override
     public List<DigitalContent> getAll() {
         List<DigitalContent> contents = new ArrayList<>();
-        String sql = "SELECT * FROM digital_content";
+        String sql = "SELECT " + COLUMNS + " FROM digital_content";
 
-        try (Connection conn = dbConfig.getConnection();
+        try (Connection conn = dbConfig.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
 
+            ContentRowMapper mapper = new ContentRowMapper(rs);
             while (rs.next()) {
-                contents.add(mapResultSetToContent(rs));
+                contents.add(mapper.map(rs));
             }
 
-            logger.info("Retrieved " + contents.size() + " content items");
+            logger.info("Retrieved {} content items", contents.size());
             return contents;
 
         } catch (SQLException e) {
-            logger.error("Failed to retrieve all content: " + e.getMessage());
+            logger.error("Failed to retrieve all content: {}", e.getMessage());
             throw new DatabaseOperationException("getAll", e);
         }
     }
 
+    @Override
+    public void streamAll(Consumer<DigitalContent> action) {
+        stream("SELECT " + COLUMNS + " FROM digital_content", "streamAll", action);
+    }
+
+    // Served by the partial index on available rows
+    public void streamAvailable(Consumer<DigitalContent> action) {
+        stream("SELECT " + COLUMNS + " FROM digital_content WHERE available ORDER BY id",
+                "streamAvailable", action);
+    }
+
+    public List<DigitalContent> getAvailablePage(int afterId, int limit) {
+        List<DigitalContent> contents = new ArrayList<>();
+        String sql = "SELECT " + COLUMNS + " FROM digital_content " +
+                "WHERE available AND id > ? ORDER BY id LIMIT ?";
+
+        try (Connection conn = dbConfig.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, afterId);
+            stmt.setInt(2, limit);
+            ResultSet rs = stmt.executeQuery();
+
+            ContentRowMapper mapper = new ContentRowMapper(rs);
+            while (rs.next()) {
+                contents.add(mapper.map(rs));
+            }
+
+            return contents;
+
+        } catch (SQLException e) {
+            logger.error("Failed to get available content page: {}", e.getMessage());
+            throw new DatabaseOperationException("getAvailablePage", e);
+        }
+    }
+
+    // One round trip for a known set of ids, in id order
+    public List<DigitalContent> getByIds(int[] ids) {
+        return getByIds(ids, false);
+    }
+
+    // For filling caches: a lagging replica could hand back a row that was just updated or deleted
+    public List<DigitalContent> getByIdsFromPrimary(int[] ids) {
+        return getByIds(ids, true);
+    }
+
+    private List<DigitalContent> getByIds(int[] ids, boolean primary) {
+        List<DigitalContent> contents = new ArrayList<>();
+        if (ids.length == 0) {
+            return contents;
+        }
+
+        String sql = "SELECT " + COLUMNS + " FROM digital_content WHERE id = ANY(?) ORDER BY id";
+
+        try (Connection conn = primary ? dbConfig.getConnection() : dbConfig.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            Integer[] boxed = new Integer[ids.length];
+            for (int i = 0; i < ids.length; i++) {
+                boxed[i] = ids[i];
+            }
+            stmt.setArray(1, conn.createArrayOf("integer", boxed));
+            ResultSet rs = stmt.executeQuery();
+
+            ContentRowMapper mapper = new ContentRowMapper(rs);
+            while (rs.next()) {
+                contents.add(mapper.map(rs));
+            }
+
+            return contents;
+
+        } catch (SQLException e) {
+            logger.error("Failed to get content by ids: {}", e.getMessage());
+            throw new DatabaseOperationException("getByIds", e);
+        }
+    }
+
+
+    // Sparse fieldsets: only the requested columns are selected and shipped
+    public void streamProjected(Set<ContentField> fields, boolean availableOnly,
+                                Consumer<Map<String, Object>> action) {
+        streamProjected(fields, availableOnly, action, false);
+    }
+
+    // For rebuilding in-memory indexes: a lagging replica could miss writes the index was
+    // already told about, so the scan reads the primary. Rows come in id order, which lets
+    // the indexes' sorted posting lists append instead of inserting into the middle.
+    public void streamProjectedFromPrimary(Set<ContentField> fields, boolean availableOnly,
+                                           Consumer<Map<String, Object>> action) {
+        streamProjected(fields, availableOnly, action, true);
+    }
+
+    private void streamProjected(Set<ContentField> fields, boolean availableOnly,
+                                 Consumer<Map<String, Object>> action, boolean primary) {
+        String sql = projectionSql(fields) + (availableOnly ? " WHERE available" : "")
+                + (primary ? " ORDER BY id" : "");
+        int count = 0;
+
+        try (Connection conn = primary ? dbConfig.getConnection() : dbConfig.getReadConnection()) {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setFetchSize(dbConfig.getFetchSize());
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        action.accept(mapResultSetToFields(rs, fields));
+                        count++;
+                    }
+                }
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+
+            logger.info("Streamed {} projected content items", count);
+
+        } catch (SQLException e) {
+            logger.error("Failed to stream projected content: {}", e.getMessage());
+            throw new DatabaseOperationException("streamProjected", e);
+        }
+    }
+
+    public List<Map<String, Object>> getProjectedPage(Set<ContentField> fields, boolean availableOnly,
+                                                      int afterId, int limit) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        String sql = projectionSql(fields) + " WHERE " + (availableOnly ? "available AND " : "") +
+                "id > ? ORDER BY id LIMIT ?";
+
+        try (Connection conn = dbConfig.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, afterId);
+            stmt.setInt(2, limit);
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                rows.add(mapResultSetToFields(rs, fields));
+            }
+
+            return rows;
+
+        } catch (SQLException e) {
+            logger.error("Failed to get projected content page: {}", e.getMessage());
+            throw new DatabaseOperationException("getProjectedPage", e);
+        }
+    }
+
+    @Override
+    public List<DigitalContent> getPage(int afterId, int limit) {
+        List<DigitalContent> contents = new ArrayList<>();
+        String sql = "SELECT " + COLUMNS + " FROM digital_content WHERE id > ? ORDER BY id LIMIT ?";
+
+        try (Connection conn = dbConfig.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, afterId);
+            stmt.setInt(2, limit);
+            ResultSet rs = stmt.executeQuery();
+
+            ContentRowMapper mapper = new ContentRowMapper(rs);
+            while (rs.next()) {
+                contents.add(mapper.map(rs));
+            }
+
+            return contents;
+
+        } catch (SQLException e) {
+            logger.error("Failed to get content page: {}", e.getMessage());
+            throw new DatabaseOperationException("getPage", e);
+        }
+    }
+
+    public List<DigitalContent> search(String keyword, int limit) {
+        List<DigitalContent> contents = new ArrayList<>();
+
+        try (Connection conn = dbConfig.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(SEARCH_SQL)) {
+
+            stmt.setString(1, keyword);
+            stmt.setString(2, "%" + escapeLike(keyword) + "%");
+            stmt.setString(3, keyword);
+            stmt.setInt(4, limit);
+            ResultSet rs = stmt.executeQuery();
+
+            ContentRowMapper mapper = new ContentRowMapper(rs);
+            while (rs.next()) {
+                contents.add(mapper.map(rs));
+            }
+
+            logger.info("Search '{}' returned {} items", keyword, contents.size());
+            return contents;
+
+        } catch (SQLException e) {
+            logger.error("Failed to search content: {}", e.getMessage());
+            throw new DatabaseOperationException("search", e);
+        }
+    }
+
+    // Case-insensitive name substring match in id order, served by the trigram index on name.
+    // Same results as ContentNameIndex, which answers these queries once it is built.
+    public List<DigitalContent> searchNames(String keyword, int limit) {
+        List<DigitalContent> contents = new ArrayList<>();
+        String sql = "SELECT " + COLUMNS + " FROM digital_content WHERE name ILIKE ? ORDER BY id LIMIT ?";
+
+        try (Connection conn = dbConfig.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, "%" + escapeLike(keyword) + "%");
+            stmt.setInt(2, limit);
+            ResultSet rs = stmt.executeQuery();
+
+            ContentRowMapper mapper = new ContentRowMapper(rs);
+            while (rs.next()) {
+                contents.add(mapper.map(rs));
+            }
+            return contents;
+
+        } catch (SQLException e) {
+            logger.error("Failed to search content names: {}", e.getMessage());
+            throw new DatabaseOperationException("searchNames", e);
+        }
+    }
+
+    // Prefix match served by the trigram index on name, most purchased first
+    public List<String> suggest(String prefix, int limit) {
+        List<String> names = new ArrayList<>();
+        String sql = "SELECT c.name FROM digital_content c " +
+                "LEFT JOIN (SELECT content_id, COUNT(*) AS purchases FROM purchases GROUP BY content_id) p " +
+                "ON p.content_id = c.id " +
+                "WHERE c.name ILIKE ? ORDER BY COALESCE(p.purchases, 0) DESC, c.id LIMIT ?";
+
+        try (Connection conn = dbConfig.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, escapeLike(prefix) + "%");
+            stmt.setInt(2, limit);
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                names.add(rs.getString(1));
+            }
+            return names;
+
+        } catch (SQLException e) {
+            logger.error("Failed to suggest content names: {}", e.getMessage());
+            throw new DatabaseOperationException("suggest", e);
+        }
+    }
+
     @Override
     public Optional<DigitalContent> getById(int id) {
-        String sql = "SELECT * FROM digital_content WHERE id = ?";
+        return getById(id, false);
+    }
+
+    // Bumped by a statement trigger on every change to digital_content, whoever makes it.
+    // Read from the primary so a lagging replica cannot hold the version back.
+    public long getCatalogVersion() {
+        String sql = "SELECT version FROM catalog_version";
 
         try (Connection conn = dbConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+
+            if (!rs.next()) {
+                throw new DatabaseOperationException("catalog_version has no row");
+            }
+            return rs.getLong(1);
+
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("getCatalogVersion", e);
+        }
+    }
+
+    public Optional<DigitalContent> getByIdFromPrimary(int id) {
+        return getById(id, true);
+    }
+
+    private Optional<DigitalContent> getById(int id, boolean primary) {
+        String sql = "SELECT " + COLUMNS + " FROM digital_content WHERE id = ?";
+
+        try (Connection conn = primary ? dbConfig.getConnection() : dbConfig.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, id);
             ResultSet rs = stmt.executeQuery();
 
             if (rs.next()) {
-                DigitalContent content = mapResultSetToContent(rs);
-                logger.info("Found content: " + content.getName());
+                DigitalContent content = new ContentRowMapper(rs).map(rs);
+                logger.info("Found content: {}", content.getName());
                 return Optional.of(content);
             }
 
-            logger.info("Content not found with ID: " + id);
+            logger.info("Content not found with ID: {}", id);
             return Optional.empty();
 
         } catch (SQLException e) {
-            logger.error("Failed to get content by ID: " + e.getMessage());
+            logger.error("Failed to get content by ID: {}", e.getMessage());
             throw new DatabaseOperationException("getById", e);
         }
     }
 
     @Override
-    public DigitalContent update(int id, DigitalContent content) {
-        String sql = "UPDATE digital_content SET name = ?, release_year = ?, available = ?, " +
-                "description = ?, creator_country = ?, creator_bio = ?, " +
-                "rentable = ?, duration_minutes = ?, track_count = ? WHERE id = ?";
-
+    public Optional<DigitalContent> update(int id, DigitalContent content) {
         try (Connection conn = dbConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(UPDATE_SQL + " RETURNING " + COLUMNS)) {
 
-            stmt.setString(1, content.getName());
-            stmt.setInt(2, content.getReleaseYear());
-            stmt.setBoolean(3, content.isAvailable());
-            stmt.setString(4, content.getDescription());
-
-            Creator creator = content.getCreator();
-            stmt.setString(5, creator != null ? creator.getCountry() : null);
-            stmt.setString(6, creator != null ? creator.getBio() : null);
-
-            if (content instanceof Movie) {
-                Movie movie = (Movie) content;
-                stmt.setBoolean(7, movie.isRentable());
-                stmt.setInt(8, movie.getDurationMinutes());
-                stmt.setNull(9, Types.INTEGER);
-            } else if (content instanceof MusicAlbum) {
-                MusicAlbum album = (MusicAlbum) content;
-                stmt.setNull(7, Types.BOOLEAN);
-                stmt.setNull(8, Types.INTEGER);
-                stmt.setInt(9, album.getCountTracks());
-            } else {
-                stmt.setNull(7, Types.BOOLEAN);
-                stmt.setNull(8, Types.INTEGER);
-                stmt.setNull(9, Types.INTEGER);
-            }
-
-            stmt.setInt(10, id);
+            bindUpdate(stmt, id, content);
+            ResultSet rs = stmt.executeQuery();
 
-            int rowsAffected = stmt.executeUpdate();
-            if (rowsAffected == 0) {
-                throw new DatabaseOperationException("No content found with ID: " + id);
+            // No returned row means nothing matched the id
+            if (rs.next()) {
+                DigitalContent updated = new ContentRowMapper(rs).map(rs);
+                logger.info("Updated content: {}", updated.getName());
+                return Optional.of(updated);
             }
-
-            content.setId(id);
-            logger.info("Updated content: " + content.getName());
-            return content;
+            logger.info("No content found to update with ID: {}", id);
+            return Optional.empty();
 
         } catch (SQLException e) {
-            logger.error("Failed to update content: " + e.getMessage());
+            logger.error("Failed to update content: {}", e.getMessage());
             throw new DatabaseOperationException("update", e);
         }
     }
 
+    @Override
+    public int updateAll(List<DigitalContent> contents) {
+        if (contents.isEmpty()) {
+            return 0;
+        }
+
+        long start = System.nanoTime();
+        int chunkSize = dbConfig.getBatchSize();
+        int updated = 0;
+
+        try (Connection conn = dbConfig.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement stmt = conn.prepareStatement(UPDATE_SQL)) {
+                for (int from = 0; from < contents.size(); from += chunkSize) {
+                    List<DigitalContent> chunk = contents.subList(from,
+                            Math.min(from + chunkSize, contents.size()));
+
+                    for (DigitalContent content : chunk) {
+                        bindUpdate(stmt, content.getId(), content);
+                        stmt.addBatch();
+                    }
+                    updated += BatchSupport.countAffected(stmt.executeBatch());
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+
+            int total = updated;
+            logger.info(() -> BatchSupport.summary("Batch updated content:", total, start));
+            return total;
+
+        } catch (SQLException e) {
+            logger.error("Failed to batch update content: {}", e.getMessage());
+            throw new DatabaseOperationException("updateAll", e);
+        }
+    }
+
     @Override
     public boolean delete(int id) {
         String sql = "DELETE FROM digital_content WHERE id = ?";
@@ -180,15 +570,15 @@ public class DigitalContentRepository implements CrudRepository<DigitalContent>
             int rowsAffected = stmt.executeUpdate();
 
             if (rowsAffected > 0) {
-                logger.info("Deleted content with ID: " + id);
+                logger.info("Deleted content with ID: {}", id);
                 return true;
             }
 
-            logger.info("No content found to delete with ID: " + id);
+            logger.info("No content found to delete with ID: {}", id);
             return false;
 
         } catch (SQLException e) {
-            logger.error("Failed to delete content: " + e.getMessage());
+            logger.error("Failed to delete content: {}", e.getMessage());
             throw new DatabaseOperationException("delete", e);
         }
     }
@@ -210,42 +600,147 @@ public class DigitalContentRepository implements CrudRepository<DigitalContent>
         }
     }
 
-    private DigitalContent mapResultSetToContent(ResultSet rs) throws SQLException {
-        int id = rs.getInt("id");
-        String name = rs.getString("name");
-        int releaseYear = rs.getInt("release_year");
-        boolean available = rs.getBoolean("available");
-        String contentType = rs.getString("content_type");
-        String description = rs.getString("description");
+    private void bindInsert(PreparedStatement stmt, DigitalContent content) throws SQLException {
+        stmt.setString(1, content.getName());
+        stmt.setInt(2, content.getReleaseYear());
+        stmt.setBoolean(3, content.isAvailable());
+        stmt.setString(4, content.getEntityType());
+        stmt.setString(5, content.getDescription());
 
-        Creator creator = new Creator(
-                rs.getString("creator_country"),
-                rs.getString("creator_bio")
-        );
+        Creator creator = content.getCreator();
+        stmt.setString(6, creator != null ? creator.getCountry() : null);
+        stmt.setString(7, creator != null ? creator.getBio() : null);
 
-        DigitalContent content;
+        bindTypeSpecificFields(stmt, content, 8);
+    }
+
+    private void bindUpdate(PreparedStatement stmt, int id, DigitalContent content) throws SQLException {
+        stmt.setString(1, content.getName());
+        stmt.setInt(2, content.getReleaseYear());
+        stmt.setBoolean(3, content.isAvailable());
+        stmt.setString(4, content.getDescription());
 
-        switch (contentType) {
-            case "MOVIE":
-                boolean rentable = rs.getBoolean("rentable");
-                int duration = rs.getInt("duration_minutes");
-                content = DigitalContentFactory.createMovie(id, name, releaseYear,
-                        available, creator, description, rentable, duration);
-                break;
+        Creator creator = content.getCreator();
+        stmt.setString(5, creator != null ? creator.getCountry() : null);
+        stmt.setString(6, creator != null ? creator.getBio() : null);
 
-            case "MUSIC_ALBUM":
-                int trackCount = rs.getInt("track_count");
-                content = DigitalContentFactory.createMusicAlbum(id, name, releaseYear,
-                        available, creator, description, trackCount);
-                break;
+        bindTypeSpecificFields(stmt, content, 7);
+        stmt.setInt(10, id);
+    }
 
-            case "GAME":
-            default:
-                content = DigitalContentFactory.createContent("GAME", id, name,
-                        releaseYear, available, creator, description);
-                break;
+    // Binds rentable, duration_minutes and track_count starting at the given index
+    private void bindTypeSpecificFields(PreparedStatement stmt, DigitalContent content, int index)
+            throws SQLException {
+        if (content instanceof Movie) {
+            Movie movie = (Movie) content;
+            stmt.setBoolean(index, movie.isRentable());
+            stmt.setInt(index + 1, movie.getDurationMinutes());
+            stmt.setNull(index + 2, Types.INTEGER);
+        } else if (content instanceof MusicAlbum) {
+            MusicAlbum album = (MusicAlbum) content;
+            stmt.setNull(index, Types.BOOLEAN);
+            stmt.setNull(index + 1, Types.INTEGER);
+            stmt.setInt(index + 2, album.getCountTracks());
+        } else {
+            stmt.setNull(index, Types.BOOLEAN);
+            stmt.setNull(index + 1, Types.INTEGER);
+            stmt.setNull(index + 2, Types.INTEGER);
         }
+    }
+
+    // One line of COPY ... (FORMAT csv): an unquoted empty field is NULL
+    private void appendCsvRow(StringBuilder row, DigitalContent content) {
+        Creator creator = content.getCreator();
+        Boolean rentable = null;
+        Integer duration = null;
+        Integer trackCount = null;
+
+        if (content instanceof Movie) {
+            Movie movie = (Movie) content;
+            rentable = movie.isRentable();
+            duration = movie.getDurationMinutes();
+        } else if (content instanceof MusicAlbum) {
+            trackCount = ((MusicAlbum) content).getCountTracks();
+        }
+
+        appendCsvValue(row, content.getName()).append(',');
+        row.append(content.getReleaseYear()).append(',');
+        row.append(content.isAvailable()).append(',');
+        appendCsvValue(row, content.getEntityType()).append(',');
+        appendCsvValue(row, content.getDescription()).append(',');
+        appendCsvValue(row, creator != null ? creator.getCountry() : null).append(',');
+        appendCsvValue(row, creator != null ? creator.getBio() : null).append(',');
+        row.append(rentable != null ? rentable.toString() : "").append(',');
+        row.append(duration != null ? duration.toString() : "").append(',');
+        row.append(trackCount != null ? trackCount.toString() : "").append('\n');
+    }
+
+    private StringBuilder appendCsvValue(StringBuilder row, String value) {
+        if (value == null) {
+            return row;
+        }
+        row.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                row.append('"');
+            }
+            row.append(c);
+        }
+        return row.append('"');
+    }
 
-        return content;
+    private void stream(String sql, String operation, Consumer<DigitalContent> action) {
+        int count = 0;
+
+        try (Connection conn = dbConfig.getReadConnection()) {
+            // pgjdbc only reads through a server-side cursor outside autocommit
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setFetchSize(dbConfig.getFetchSize());
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    ContentRowMapper mapper = new ContentRowMapper(rs);
+                    while (rs.next()) {
+                        action.accept(mapper.map(rs));
+                        count++;
+                    }
+                }
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+
+            logger.info("Streamed {} content items", count);
+
+        } catch (SQLException e) {
+            logger.error("Failed to stream content: {}", e.getMessage());
+            throw new DatabaseOperationException(operation, e);
+        }
+    }
+
+    // The keyword is matched literally, so LIKE wildcards in it are escaped
+    private String escapeLike(String keyword) {
+        return keyword.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private String projectionSql(Set<ContentField> fields) {
+        return fields.stream()
+                .map(ContentField::getColumn)
+                .collect(Collectors.joining(", ", "SELECT ", " FROM digital_content"));
+    }
+
+    // Columns come back in the order of the requested fields
+    private Map<String, Object> mapResultSetToFields(ResultSet rs, Set<ContentField> fields) throws SQLException {
+        Map<String, Object> row = new LinkedHashMap<>();
+        int index = 1;
+        for (ContentField field : fields) {
+            row.put(field.getJsonName(), rs.getObject(index++));
+        }
+        return row;
     }
 }
\ No newline at end of file
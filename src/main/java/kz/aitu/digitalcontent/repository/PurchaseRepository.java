@@ -1,17 +1,23 @@
 package kz.aitu.digitalcontent.repository;
 
 import kz.aitu.digitalcontent.exception.DatabaseOperationException;
+import kz.aitu.digitalcontent.exception.ResourceNotFoundException;
 import kz.aitu.digitalcontent.model.Purchase;
 import kz.aitu.digitalcontent.patterns.DatabaseConfig;
 import kz.aitu.digitalcontent.patterns.LoggerService;
 import kz.aitu.digitalcontent.repository.interfaces.CrudRepository;
+import kz.aitu.digitalcontent.repository.mapper.PurchaseRowMapper;
+import org.postgresql.util.PSQLException;
+import org.postgresql.util.ServerErrorMessage;
 import org.springframework.stereotype.Repository;
 
 import java.sql.*;
-import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Repository
 public class PurchaseRepository implements CrudRepository<Purchase> {
@@ -19,18 +25,25 @@ public class PurchaseRepository implements CrudRepository<Purchase> {
     private final DatabaseConfig dbConfig = DatabaseConfig.getInstance();
     private final LoggerService logger = LoggerService.getInstance();
 
+    private static final String INSERT_SQL =
+            "INSERT INTO purchases (user_id, content_id, purchase_date, price_paid) " +
+            "VALUES (?, ?, ?, ?)";
+
+    private static final String UPDATE_SQL =
+            "UPDATE purchases SET user_id = ?, content_id = ?, " +
+            "purchase_date = ?, price_paid = ? WHERE purchase_id = ?";
+
+    private static final String FOREIGN_KEY_VIOLATION = "23503";
+    private static final String USER_FK = "fk_purchases_user";
+    private static final String CONTENT_FK = "fk_purchases_content";
+
+    // The foreign keys check that user and content exist, so no pre-check queries are needed
     @Override
     public Purchase create(Purchase purchase) {
-        String sql = "INSERT INTO purchases (user_id, content_id, purchase_date, price_paid) " +
-                "VALUES (?, ?, ?, ?)";
-
         try (Connection conn = dbConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+             PreparedStatement stmt = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
 
-            stmt.setInt(1, purchase.getUserId());
-            stmt.setInt(2, purchase.getContentId());
-            stmt.setDate(3, Date.valueOf(purchase.getPurchaseDate()));
-            stmt.setDouble(4, purchase.getPricePaid());
+            bindInsert(stmt, purchase);
             stmt.executeUpdate();
 
             ResultSet generatedKeys = stmt.getGeneratedKeys();
@@ -38,29 +51,78 @@ public class PurchaseRepository implements CrudRepository<Purchase> {
                 purchase.setPurchaseId(generatedKeys.getInt(1));
             }
 
-            logger.info("Created purchase #" + purchase.getPurchaseId());
+            logger.info("Created purchase #{}", purchase.getPurchaseId());
             return purchase;
 
         } catch (SQLException e) {
-            logger.error("Failed to create purchase: " + e.getMessage());
+            checkForeignKeys(e, purchase);
+            logger.error("Failed to create purchase: {}", e.getMessage());
             throw new DatabaseOperationException("create purchase", e);
         }
     }
 
+    @Override
+    public List<Purchase> createAll(List<Purchase> purchases) {
+        if (purchases.isEmpty()) {
+            return purchases;
+        }
+
+        long start = System.nanoTime();
+        int chunkSize = dbConfig.getBatchSize();
+
+        try (Connection conn = dbConfig.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement stmt = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (int from = 0; from < purchases.size(); from += chunkSize) {
+                    List<Purchase> chunk = purchases.subList(from,
+                            Math.min(from + chunkSize, purchases.size()));
+
+                    for (Purchase purchase : chunk) {
+                        bindInsert(stmt, purchase);
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+
+                    ResultSet generatedKeys = stmt.getGeneratedKeys();
+                    for (Purchase purchase : chunk) {
+                        if (generatedKeys.next()) {
+                            purchase.setPurchaseId(generatedKeys.getInt(1));
+                        }
+                    }
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+
+            logger.info(() -> BatchSupport.summary("Batch created purchases:", purchases.size(), start));
+            return purchases;
+
+        } catch (SQLException e) {
+            logger.error("Failed to batch create purchases: {}", e.getMessage());
+            throw new DatabaseOperationException("createAll purchases", e);
+        }
+    }
+
     @Override
     public List<Purchase> getAll() {
         List<Purchase> purchases = new ArrayList<>();
         String sql = "SELECT * FROM purchases";
 
-        try (Connection conn = dbConfig.getConnection();
+        try (Connection conn = dbConfig.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
 
+            PurchaseRowMapper mapper = new PurchaseRowMapper(rs);
             while (rs.next()) {
-                purchases.add(mapResultSetToPurchase(rs));
+                purchases.add(mapper.map(rs));
             }
 
-            logger.info("Retrieved " + purchases.size() + " purchases");
+            logger.info("Retrieved {} purchases", purchases.size());
             return purchases;
 
         } catch (SQLException e) {
@@ -68,18 +130,76 @@ public class PurchaseRepository implements CrudRepository<Purchase> {
         }
     }
 
+    @Override
+    public void streamAll(Consumer<Purchase> action) {
+        String sql = "SELECT * FROM purchases";
+        int count = 0;
+
+        try (Connection conn = dbConfig.getReadConnection()) {
+            // pgjdbc only reads through a server-side cursor outside autocommit
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setFetchSize(dbConfig.getFetchSize());
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    PurchaseRowMapper mapper = new PurchaseRowMapper(rs);
+                    while (rs.next()) {
+                        action.accept(mapper.map(rs));
+                        count++;
+                    }
+                }
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+
+            logger.info("Streamed {} purchases", count);
+
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("streamAll purchases", e);
+        }
+    }
+
+    @Override
+    public List<Purchase> getPage(int afterId, int limit) {
+        List<Purchase> purchases = new ArrayList<>();
+        String sql = "SELECT * FROM purchases WHERE purchase_id > ? ORDER BY purchase_id LIMIT ?";
+
+        try (Connection conn = dbConfig.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, afterId);
+            stmt.setInt(2, limit);
+            ResultSet rs = stmt.executeQuery();
+
+            PurchaseRowMapper mapper = new PurchaseRowMapper(rs);
+            while (rs.next()) {
+                purchases.add(mapper.map(rs));
+            }
+
+            return purchases;
+
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("getPage purchases", e);
+        }
+    }
+
     @Override
     public Optional<Purchase> getById(int id) {
         String sql = "SELECT * FROM purchases WHERE purchase_id = ?";
 
-        try (Connection conn = dbConfig.getConnection();
+        try (Connection conn = dbConfig.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, id);
             ResultSet rs = stmt.executeQuery();
 
             if (rs.next()) {
-                return Optional.of(mapResultSetToPurchase(rs));
+                return Optional.of(new PurchaseRowMapper(rs).map(rs));
             }
             return Optional.empty();
 
@@ -89,33 +209,69 @@ public class PurchaseRepository implements CrudRepository<Purchase> {
     }
 
     @Override
-    public Purchase update(int id, Purchase purchase) {
-        String sql = "UPDATE purchases SET user_id = ?, content_id = ?, " +
-                "purchase_date = ?, price_paid = ? WHERE purchase_id = ?";
-
+    public Optional<Purchase> update(int id, Purchase purchase) {
         try (Connection conn = dbConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(UPDATE_SQL + " RETURNING *")) {
 
-            stmt.setInt(1, purchase.getUserId());
-            stmt.setInt(2, purchase.getContentId());
-            stmt.setDate(3, Date.valueOf(purchase.getPurchaseDate()));
-            stmt.setDouble(4, purchase.getPricePaid());
-            stmt.setInt(5, id);
+            bindUpdate(stmt, id, purchase);
+            ResultSet rs = stmt.executeQuery();
 
-            int rowsAffected = stmt.executeUpdate();
-            if (rowsAffected == 0) {
-                throw new DatabaseOperationException("No purchase found with ID: " + id);
+            // No returned row means nothing matched the id
+            if (rs.next()) {
+                Purchase updated = new PurchaseRowMapper(rs).map(rs);
+                logger.info("Updated purchase #{}", id);
+                return Optional.of(updated);
             }
-
-            purchase.setPurchaseId(id);
-            logger.info("Updated purchase #" + id);
-            return purchase;
+            return Optional.empty();
 
         } catch (SQLException e) {
+            checkForeignKeys(e, purchase);
             throw new DatabaseOperationException("update purchase", e);
         }
     }
 
+    @Override
+    public int updateAll(List<Purchase> purchases) {
+        if (purchases.isEmpty()) {
+            return 0;
+        }
+
+        long start = System.nanoTime();
+        int chunkSize = dbConfig.getBatchSize();
+        int updated = 0;
+
+        try (Connection conn = dbConfig.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement stmt = conn.prepareStatement(UPDATE_SQL)) {
+                for (int from = 0; from < purchases.size(); from += chunkSize) {
+                    List<Purchase> chunk = purchases.subList(from,
+                            Math.min(from + chunkSize, purchases.size()));
+
+                    for (Purchase purchase : chunk) {
+                        bindUpdate(stmt, purchase.getPurchaseId(), purchase);
+                        stmt.addBatch();
+                    }
+                    updated += BatchSupport.countAffected(stmt.executeBatch());
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+
+            int total = updated;
+            logger.info(() -> BatchSupport.summary("Batch updated purchases:", total, start));
+            return total;
+
+        } catch (SQLException e) {
+            logger.error("Failed to batch update purchases: {}", e.getMessage());
+            throw new DatabaseOperationException("updateAll purchases", e);
+        }
+    }
+
     @Override
     public boolean delete(int id) {
         String sql = "DELETE FROM purchases WHERE purchase_id = ?";
@@ -126,7 +282,7 @@ public class PurchaseRepository implements CrudRepository<Purchase> {
             stmt.setInt(1, id);
             int rowsAffected = stmt.executeUpdate();
 
-            logger.info("Deleted purchase #" + id);
+            logger.info("Deleted purchase #{}", id);
             return rowsAffected > 0;
 
         } catch (SQLException e) {
@@ -134,6 +290,27 @@ public class PurchaseRepository implements CrudRepository<Purchase> {
         }
     }
 
+    // Same as delete(), but reports which content lost a purchase
+    public Optional<Integer> deleteReturningContentId(int id) {
+        String sql = "DELETE FROM purchases WHERE purchase_id = ? RETURNING content_id";
+
+        try (Connection conn = dbConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, id);
+            ResultSet rs = stmt.executeQuery();
+            if (!rs.next()) {
+                return Optional.empty();
+            }
+
+            logger.info("Deleted purchase #{}", id);
+            return Optional.of(rs.getInt(1));
+
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("delete purchase", e);
+        }
+    }
+
     @Override
     public boolean exists(int id) {
         String sql = "SELECT COUNT(*) FROM purchases WHERE purchase_id = ?";
@@ -150,18 +327,39 @@ public class PurchaseRepository implements CrudRepository<Purchase> {
         }
     }
 
+    // content id -> number of purchases, for ranking suggestions
+    public Map<Integer, Integer> countByContent() {
+        Map<Integer, Integer> counts = new HashMap<>();
+        String sql = "SELECT content_id, COUNT(*) FROM purchases GROUP BY content_id";
+
+        try (Connection conn = dbConfig.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                counts.put(rs.getInt(1), rs.getInt(2));
+            }
+            return counts;
+
+        } catch (SQLException e) {
+            logger.error("Failed to count purchases by content: {}", e.getMessage());
+            throw new DatabaseOperationException("countByContent", e);
+        }
+    }
+
     public List<Purchase> findByUserId(int userId) {
         List<Purchase> purchases = new ArrayList<>();
         String sql = "SELECT * FROM purchases WHERE user_id = ?";
 
-        try (Connection conn = dbConfig.getConnection();
+        try (Connection conn = dbConfig.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, userId);
             ResultSet rs = stmt.executeQuery();
 
+            PurchaseRowMapper mapper = new PurchaseRowMapper(rs);
             while (rs.next()) {
-                purchases.add(mapResultSetToPurchase(rs));
+                purchases.add(mapper.map(rs));
             }
 
             return purchases;
@@ -171,13 +369,57 @@ public class PurchaseRepository implements CrudRepository<Purchase> {
         }
     }
 
-    private Purchase mapResultSetToPurchase(ResultSet rs) throws SQLException {
-        return new Purchase(
-                rs.getInt("purchase_id"),
-                rs.getInt("user_id"),
-                rs.getInt("content_id"),
-                rs.getDate("purchase_date").toLocalDate(),
-                rs.getDouble("price_paid")
-        );
+    public List<Purchase> findByUserId(int userId, int afterId, int limit) {
+        List<Purchase> purchases = new ArrayList<>();
+        String sql = "SELECT * FROM purchases WHERE user_id = ? AND purchase_id > ? " +
+                "ORDER BY purchase_id LIMIT ?";
+
+        try (Connection conn = dbConfig.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, userId);
+            stmt.setInt(2, afterId);
+            stmt.setInt(3, limit);
+            ResultSet rs = stmt.executeQuery();
+
+            PurchaseRowMapper mapper = new PurchaseRowMapper(rs);
+            while (rs.next()) {
+                purchases.add(mapper.map(rs));
+            }
+
+            return purchases;
+
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("findByUserId page", e);
+        }
+    }
+
+    // Turns a foreign key violation into the same not-found error the API always returned
+    private void checkForeignKeys(SQLException e, Purchase purchase) {
+        if (!FOREIGN_KEY_VIOLATION.equals(e.getSQLState()) || !(e instanceof PSQLException)) {
+            return;
+        }
+
+        ServerErrorMessage serverError = ((PSQLException) e).getServerErrorMessage();
+        String constraint = serverError != null ? serverError.getConstraint() : null;
+
+        if (USER_FK.equals(constraint)) {
+            throw new ResourceNotFoundException("User", purchase.getUserId());
+        }
+        if (CONTENT_FK.equals(constraint)) {
+            throw new ResourceNotFoundException("DigitalContent", purchase.getContentId());
+        }
+    }
+
+    private void bindInsert(PreparedStatement stmt, Purchase purchase) throws SQLException {
+        stmt.setInt(1, purchase.getUserId());
+        stmt.setInt(2, purchase.getContentId());
+        stmt.setDate(3, Date.valueOf(purchase.getPurchaseDate()));
+        stmt.setDouble(4, purchase.getPricePaid());
+    }
+
+    private void bindUpdate(PreparedStatement stmt, int id, Purchase purchase) throws SQLException {
+        bindInsert(stmt, purchase);
+        stmt.setInt(5, id);
     }
 }
\ No newline at end of file
@@ -1,16 +1,19 @@
 package kz.aitu.digitalcontent.repository;
 
 import kz.aitu.digitalcontent.exception.DatabaseOperationException;
+import kz.aitu.digitalcontent.exception.DuplicateResourceException;
 import kz.aitu.digitalcontent.model.User;
 import kz.aitu.digitalcontent.patterns.DatabaseConfig;
 import kz.aitu.digitalcontent.patterns.LoggerService;
 import kz.aitu.digitalcontent.repository.interfaces.CrudRepository;
+import kz.aitu.digitalcontent.repository.mapper.UserRowMapper;
 import org.springframework.stereotype.Repository;
 
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Repository
 public class UserRepository implements CrudRepository<User> {
@@ -18,15 +21,18 @@ public class UserRepository implements CrudRepository<User> {
     private final DatabaseConfig dbConfig = DatabaseConfig.getInstance();
     private final LoggerService logger = LoggerService.getInstance();
 
+    private static final String INSERT_SQL = "INSERT INTO users (name, email) VALUES (?, ?)";
+
+    private static final String UPDATE_SQL = "UPDATE users SET name = ?, email = ? WHERE id = ?";
+
+    private static final String UNIQUE_VIOLATION = "23505";
+
     @Override
     public User create(User user) {
-        String sql = "INSERT INTO users (name, email) VALUES (?, ?)";
-
         try (Connection conn = dbConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+             PreparedStatement stmt = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
 
-            stmt.setString(1, user.getName());
-            stmt.setString(2, user.getEmail());
+            bindInsert(stmt, user);
             stmt.executeUpdate();
 
             ResultSet generatedKeys = stmt.getGeneratedKeys();
@@ -34,29 +40,79 @@ public class UserRepository implements CrudRepository<User> {
                 user.setId(generatedKeys.getInt(1));
             }
 
-            logger.info("Created user: " + user.getName());
+            logger.info("Created user: {}", user.getName());
             return user;
 
         } catch (SQLException e) {
-            logger.error("Failed to create user: " + e.getMessage());
+            checkUniqueEmail(e, user.getEmail());
+            logger.error("Failed to create user: {}", e.getMessage());
             throw new DatabaseOperationException("create user", e);
         }
     }
 
+    @Override
+    public List<User> createAll(List<User> users) {
+        if (users.isEmpty()) {
+            return users;
+        }
+
+        long start = System.nanoTime();
+        int chunkSize = dbConfig.getBatchSize();
+
+        try (Connection conn = dbConfig.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement stmt = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (int from = 0; from < users.size(); from += chunkSize) {
+                    List<User> chunk = users.subList(from,
+                            Math.min(from + chunkSize, users.size()));
+
+                    for (User user : chunk) {
+                        bindInsert(stmt, user);
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+
+                    ResultSet generatedKeys = stmt.getGeneratedKeys();
+                    for (User user : chunk) {
+                        if (generatedKeys.next()) {
+                            user.setId(generatedKeys.getInt(1));
+                        }
+                    }
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+
+            logger.info(() -> BatchSupport.summary("Batch created users:", users.size(), start));
+            return users;
+
+        } catch (SQLException e) {
+            checkUniqueEmail(e, "(batch)");
+            logger.error("Failed to batch create users: {}", e.getMessage());
+            throw new DatabaseOperationException("createAll users", e);
+        }
+    }
+
     @Override
     public List<User> getAll() {
         List<User> users = new ArrayList<>();
         String sql = "SELECT * FROM users";
 
-        try (Connection conn = dbConfig.getConnection();
+        try (Connection conn = dbConfig.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
 
+            UserRowMapper mapper = new UserRowMapper(rs);
             while (rs.next()) {
-                users.add(mapResultSetToUser(rs));
+                users.add(mapper.map(rs));
             }
 
-            logger.info("Retrieved " + users.size() + " users");
+            logger.info("Retrieved {} users", users.size());
             return users;
 
         } catch (SQLException e) {
@@ -64,18 +120,76 @@ public class UserRepository implements CrudRepository<User> {
         }
     }
 
+    @Override
+    public void streamAll(Consumer<User> action) {
+        String sql = "SELECT * FROM users";
+        int count = 0;
+
+        try (Connection conn = dbConfig.getReadConnection()) {
+            // pgjdbc only reads through a server-side cursor outside autocommit
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setFetchSize(dbConfig.getFetchSize());
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    UserRowMapper mapper = new UserRowMapper(rs);
+                    while (rs.next()) {
+                        action.accept(mapper.map(rs));
+                        count++;
+                    }
+                }
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+
+            logger.info("Streamed {} users", count);
+
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("streamAll users", e);
+        }
+    }
+
+    @Override
+    public List<User> getPage(int afterId, int limit) {
+        List<User> users = new ArrayList<>();
+        String sql = "SELECT * FROM users WHERE id > ? ORDER BY id LIMIT ?";
+
+        try (Connection conn = dbConfig.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, afterId);
+            stmt.setInt(2, limit);
+            ResultSet rs = stmt.executeQuery();
+
+            UserRowMapper mapper = new UserRowMapper(rs);
+            while (rs.next()) {
+                users.add(mapper.map(rs));
+            }
+
+            return users;
+
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("getPage users", e);
+        }
+    }
+
     @Override
     public Optional<User> getById(int id) {
         String sql = "SELECT * FROM users WHERE id = ?";
 
-        try (Connection conn = dbConfig.getConnection();
+        try (Connection conn = dbConfig.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, id);
             ResultSet rs = stmt.executeQuery();
 
             if (rs.next()) {
-                return Optional.of(mapResultSetToUser(rs));
+                return Optional.of(new UserRowMapper(rs).map(rs));
             }
             return Optional.empty();
 
@@ -85,30 +199,70 @@ public class UserRepository implements CrudRepository<User> {
     }
 
     @Override
-    public User update(int id, User user) {
-        String sql = "UPDATE users SET name = ?, email = ? WHERE id = ?";
-
+    public Optional<User> update(int id, User user) {
         try (Connection conn = dbConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(UPDATE_SQL + " RETURNING *")) {
 
-            stmt.setString(1, user.getName());
-            stmt.setString(2, user.getEmail());
-            stmt.setInt(3, id);
+            bindUpdate(stmt, id, user);
+            ResultSet rs = stmt.executeQuery();
 
-            int rowsAffected = stmt.executeUpdate();
-            if (rowsAffected == 0) {
-                throw new DatabaseOperationException("No user found with ID: " + id);
+            // No returned row means nothing matched the id
+            if (rs.next()) {
+                User updated = new UserRowMapper(rs).map(rs);
+                logger.info("Updated user: {}", updated.getName());
+                return Optional.of(updated);
             }
-
-            user.setId(id);
-            logger.info("Updated user: " + user.getName());
-            return user;
+            return Optional.empty();
 
         } catch (SQLException e) {
+            checkUniqueEmail(e, user.getEmail());
             throw new DatabaseOperationException("update user", e);
         }
     }
 
+    @Override
+    public int updateAll(List<User> users) {
+        if (users.isEmpty()) {
+            return 0;
+        }
+
+        long start = System.nanoTime();
+        int chunkSize = dbConfig.getBatchSize();
+        int updated = 0;
+
+        try (Connection conn = dbConfig.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement stmt = conn.prepareStatement(UPDATE_SQL)) {
+                for (int from = 0; from < users.size(); from += chunkSize) {
+                    List<User> chunk = users.subList(from,
+                            Math.min(from + chunkSize, users.size()));
+
+                    for (User user : chunk) {
+                        bindUpdate(stmt, user.getId(), user);
+                        stmt.addBatch();
+                    }
+                    updated += BatchSupport.countAffected(stmt.executeBatch());
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+
+            int total = updated;
+            logger.info(() -> BatchSupport.summary("Batch updated users:", total, start));
+            return total;
+
+        } catch (SQLException e) {
+            checkUniqueEmail(e, "(batch)");
+            logger.error("Failed to batch update users: {}", e.getMessage());
+            throw new DatabaseOperationException("updateAll users", e);
+        }
+    }
+
     @Override
     public boolean delete(int id) {
         String sql = "DELETE FROM users WHERE id = ?";
@@ -119,7 +273,7 @@ public class UserRepository implements CrudRepository<User> {
             stmt.setInt(1, id);
             int rowsAffected = stmt.executeUpdate();
 
-            logger.info("Deleted user with ID: " + id);
+            logger.info("Deleted user with ID: {}", id);
             return rowsAffected > 0;
 
         } catch (SQLException e) {
@@ -143,6 +297,48 @@ public class UserRepository implements CrudRepository<User> {
         }
     }
 
+    public long count() {
+        String sql = "SELECT COUNT(*) FROM users";
+
+        try (Connection conn = dbConfig.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+
+            return rs.next() ? rs.getLong(1) : 0;
+
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("count users", e);
+        }
+    }
+
+    // Only the email column, read through a server-side cursor
+    public void streamAllEmails(Consumer<String> action) {
+        String sql = "SELECT email FROM users";
+
+        try (Connection conn = dbConfig.getReadConnection()) {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setFetchSize(dbConfig.getFetchSize());
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        action.accept(rs.getString(1));
+                    }
+                }
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("streamAllEmails", e);
+        }
+    }
+
     public Optional<User> findByEmail(String email) {
         String sql = "SELECT * FROM users WHERE email = ?";
 
@@ -153,7 +349,7 @@ public class UserRepository implements CrudRepository<User> {
             ResultSet rs = stmt.executeQuery();
 
             if (rs.next()) {
-                return Optional.of(mapResultSetToUser(rs));
+                return Optional.of(new UserRowMapper(rs).map(rs));
             }
             return Optional.empty();
 
@@ -162,11 +358,23 @@ public class UserRepository implements CrudRepository<User> {
         }
     }
 
-    private User mapResultSetToUser(ResultSet rs) throws SQLException {
-        return new User(
-                rs.getInt("id"),
-                rs.getString("name"),
-                rs.getString("email")
-        );
+    // The UNIQUE constraint on email is the final duplicate check behind the service's lookup
+    private void checkUniqueEmail(SQLException e, String email) {
+        for (SQLException current = e; current != null; current = current.getNextException()) {
+            if (UNIQUE_VIOLATION.equals(current.getSQLState())) {
+                throw new DuplicateResourceException("User", email);
+            }
+        }
+    }
+
+    private void bindInsert(PreparedStatement stmt, User user) throws SQLException {
+        stmt.setString(1, user.getName());
+        stmt.setString(2, user.getEmail());
+    }
+
+    private void bindUpdate(PreparedStatement stmt, int id, User user) throws SQLException {
+        stmt.setString(1, user.getName());
+        stmt.setString(2, user.getEmail());
+        stmt.setInt(3, id);
     }
 }
\ No newline at end of file
@@ -2,16 +2,27 @@ package kz.aitu.digitalcontent.repository.interfaces;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface CrudRepository<T> {
 
     T create(T entity);
 
+    List<T> createAll(List<T> entities);
+
     List<T> getAll();
 
+    void streamAll(Consumer<T> action);
+
+    // Keyset page: rows with id > afterId in id order
+    List<T> getPage(int afterId, int limit);
+
     Optional<T> getById(int id);
 
-    T update(int id, T entity);
+    // Empty when no row has the given id
+    Optional<T> update(int id, T entity);
+
+    int updateAll(List<T> entities);
 
     boolean delete(int id);
 
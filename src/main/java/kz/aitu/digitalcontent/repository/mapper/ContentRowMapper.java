@@ -0,0 +1,77 @@
+package kz.aitu.digitalcontent.repository.mapper;
+
+import kz.aitu.digitalcontent.model.Creator;
+import kz.aitu.digitalcontent.model.DigitalContent;
+import kz.aitu.digitalcontent.model.Game;
+import kz.aitu.digitalcontent.patterns.DigitalContentFactory;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+public class ContentRowMapper implements RowMapper<DigitalContent> {
+
+    private enum Kind {
+        GAME, MOVIE, MUSIC_ALBUM
+    }
+
+    // content_type -> subtype in one hash lookup instead of a chain of equals() calls
+    private static final Map<String, Kind> KINDS = new HashMap<>();
+
+    static {
+        for (Kind kind : Kind.values()) {
+            KINDS.put(kind.name(), kind);
+        }
+    }
+
+    private final int id;
+    private final int name;
+    private final int releaseYear;
+    private final int available;
+    private final int contentType;
+    private final int description;
+    private final int creatorCountry;
+    private final int creatorBio;
+    private final int rentable;
+    private final int durationMinutes;
+    private final int trackCount;
+
+    public ContentRowMapper(ResultSet rs) throws SQLException {
+        this.id = rs.findColumn("id");
+        this.name = rs.findColumn("name");
+        this.releaseYear = rs.findColumn("release_year");
+        this.available = rs.findColumn("available");
+        this.contentType = rs.findColumn("content_type");
+        this.description = rs.findColumn("description");
+        this.creatorCountry = rs.findColumn("creator_country");
+        this.creatorBio = rs.findColumn("creator_bio");
+        this.rentable = rs.findColumn("rentable");
+        this.durationMinutes = rs.findColumn("duration_minutes");
+        this.trackCount = rs.findColumn("track_count");
+    }
+
+    @Override
+    public DigitalContent map(ResultSet rs) throws SQLException {
+        int contentId = rs.getInt(id);
+        String contentName = rs.getString(name);
+        int year = rs.getInt(releaseYear);
+        boolean isAvailable = rs.getBoolean(available);
+        String text = rs.getString(description);
+        Creator creator = new Creator(rs.getString(creatorCountry), rs.getString(creatorBio));
+
+        switch (KINDS.getOrDefault(rs.getString(contentType), Kind.GAME)) {
+            case MOVIE:
+                return DigitalContentFactory.createMovie(contentId, contentName, year, isAvailable,
+                        creator, text, rs.getBoolean(rentable), rs.getInt(durationMinutes));
+
+            case MUSIC_ALBUM:
+                return DigitalContentFactory.createMusicAlbum(contentId, contentName, year, isAvailable,
+                        creator, text, rs.getInt(trackCount));
+
+            case GAME:
+            default:
+                return new Game(contentId, contentName, year, isAvailable, creator, text);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package kz.aitu.digitalcontent.repository.mapper;
+
+import kz.aitu.digitalcontent.model.Purchase;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+public class PurchaseRowMapper implements RowMapper<Purchase> {
+    private final int purchaseId;
+    private final int userId;
+    private final int contentId;
+    private final int purchaseDate;
+    private final int pricePaid;
+
+    public PurchaseRowMapper(ResultSet rs) throws SQLException {
+        this.purchaseId = rs.findColumn("purchase_id");
+        this.userId = rs.findColumn("user_id");
+        this.contentId = rs.findColumn("content_id");
+        this.purchaseDate = rs.findColumn("purchase_date");
+        this.pricePaid = rs.findColumn("price_paid");
+    }
+
+    @Override
+    public Purchase map(ResultSet rs) throws SQLException {
+        return new Purchase(
+                rs.getInt(purchaseId),
+                rs.getInt(userId),
+                rs.getInt(contentId),
+                // Straight to LocalDate, without the java.sql.Date round trip
+                rs.getObject(purchaseDate, LocalDate.class),
+                rs.getDouble(pricePaid)
+        );
+    }
+}
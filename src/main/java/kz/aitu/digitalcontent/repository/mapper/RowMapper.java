@@ -0,0 +1,10 @@
+package kz.aitu.digitalcontent.repository.mapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+// A mapper is created once per ResultSet (column indexes are resolved in its
+// constructor) and then called for every row.
+public interface RowMapper<T> {
+    T map(ResultSet rs) throws SQLException;
+}
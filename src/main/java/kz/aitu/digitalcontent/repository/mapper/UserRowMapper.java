@@ -0,0 +1,23 @@
+package kz.aitu.digitalcontent.repository.mapper;
+
+import kz.aitu.digitalcontent.model.User;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+public class UserRowMapper implements RowMapper<User> {
+    private final int id;
+    private final int name;
+    private final int email;
+
+    public UserRowMapper(ResultSet rs) throws SQLException {
+        this.id = rs.findColumn("id");
+        this.name = rs.findColumn("name");
+        this.email = rs.findColumn("email");
+    }
+
+    @Override
+    public User map(ResultSet rs) throws SQLException {
+        return new User(rs.getInt(id), rs.getString(name), rs.getString(email));
+    }
+}
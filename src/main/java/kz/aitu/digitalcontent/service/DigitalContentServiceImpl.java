@@ -1,24 +1,66 @@
 package kz.aitu.digitalcontent.service;
 
+import jakarta.annotation.PreDestroy;
+import kz.aitu.digitalcontent.cache.CatalogVersion;
+import kz.aitu.digitalcontent.cache.ContentCache;
+import kz.aitu.digitalcontent.cache.ResponseByteCache;
+import kz.aitu.digitalcontent.dto.ContentField;
+import kz.aitu.digitalcontent.dto.ImportResultDTO;
+import kz.aitu.digitalcontent.dto.PageDTO;
 import kz.aitu.digitalcontent.exception.InvalidInputException;
 import kz.aitu.digitalcontent.exception.ResourceNotFoundException;
+import kz.aitu.digitalcontent.index.AvailabilityIndex;
+import kz.aitu.digitalcontent.index.ContentNameIndex;
+import kz.aitu.digitalcontent.index.ContentSuggester;
 import kz.aitu.digitalcontent.model.DigitalContent;
 import kz.aitu.digitalcontent.repository.DigitalContentRepository;
 import kz.aitu.digitalcontent.service.interfaces.DigitalContentService;
+import kz.aitu.digitalcontent.utils.ContentImportReader;
+import kz.aitu.digitalcontent.utils.PageCursor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 @Service
 public class DigitalContentServiceImpl implements DigitalContentService {
 
     private final DigitalContentRepository repository;
+    private final ContentNameIndex nameIndex;
+    private final ContentSuggester suggester;
+    private final ContentCache cache;
+    private final AvailabilityIndex availability;
+    private final CatalogVersion catalogVersion;
+    private final ResponseByteCache responseCache;
+
+    private final ExecutorService importRefresher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "import-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean refreshPending = new AtomicBoolean();
 
     @Autowired
-    public DigitalContentServiceImpl(DigitalContentRepository repository) {
+    public DigitalContentServiceImpl(DigitalContentRepository repository, ContentNameIndex nameIndex,
+                                     ContentSuggester suggester, ContentCache cache,
+                                     AvailabilityIndex availability, CatalogVersion catalogVersion,
+                                     ResponseByteCache responseCache) {
         this.repository = repository;
+        this.nameIndex = nameIndex;
+        this.suggester = suggester;
+        this.cache = cache;
+        this.availability = availability;
+        this.catalogVersion = catalogVersion;
+        this.responseCache = responseCache;
     }
 
     @Override
@@ -30,7 +72,14 @@ public class DigitalContentServiceImpl implements DigitalContentService {
 
         content.validate();
 
-        return repository.create(content);
+        DigitalContent created = repository.create(content);
+        nameIndex.put(created);
+        suggester.put(created);
+        availability.set(created.getId(), created.isAvailable());
+        responseCache.evictPages();
+        // Last, so a reader holding the new ETag can only see the new state
+        catalogVersion.bump(created.getId());
+        return created;
     }
 
     @Override
@@ -38,47 +87,210 @@ public class DigitalContentServiceImpl implements DigitalContentService {
         return repository.getAll();
     }
 
+    @Override
+    public void streamAllContent(Consumer<DigitalContent> action) {
+        repository.streamAll(action);
+    }
+
+    @Override
+    public PageDTO<DigitalContent> getContentPage(String after, Integer limit) {
+        int pageSize = PageCursor.checkLimit(limit);
+        List<DigitalContent> rows = repository.getPage(PageCursor.decode(after), pageSize + 1);
+        return PageDTO.fromRows(rows, pageSize, DigitalContent::getId);
+    }
+
+    @Override
+    public void streamContentFields(Set<ContentField> fields, boolean availableOnly,
+                                    Consumer<Map<String, Object>> action) {
+        repository.streamProjected(fields, availableOnly, action);
+    }
+
+    @Override
+    public PageDTO<Map<String, Object>> getContentFieldsPage(Set<ContentField> fields, boolean availableOnly,
+                                                             String after, Integer limit) {
+        int pageSize = PageCursor.checkLimit(limit);
+        List<Map<String, Object>> rows = repository.getProjectedPage(fields, availableOnly,
+                PageCursor.decode(after), pageSize + 1);
+        return PageDTO.fromRows(rows, pageSize, row -> (Integer) row.get(ContentField.ID.getJsonName()));
+    }
+
     @Override
     public DigitalContent getContentById(int id) {
-        return repository.getById(id)
+        return cache.getById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("DigitalContent", id));
     }
 
     @Override
     public DigitalContent updateContent(int id, DigitalContent content) {
-        if (!repository.exists(id)) {
-            throw new ResourceNotFoundException("DigitalContent", id);
-        }
-
         content.validate();
-        return repository.update(id, content);
+
+        DigitalContent updated = repository.update(id, content)
+                .orElseThrow(() -> new ResourceNotFoundException("DigitalContent", id));
+        // The returned row is exactly what is now stored, so it replaces the cached copy
+        cache.put(updated);
+        nameIndex.put(updated);
+        suggester.put(updated);
+        availability.set(updated.getId(), updated.isAvailable());
+        responseCache.evictItem(id);
+        responseCache.evictPages();
+        catalogVersion.bump(id);
+        return updated;
     }
 
     @Override
     public boolean deleteContent(int id) {
-        if (!repository.exists(id)) {
+        if (!repository.delete(id)) {
             throw new ResourceNotFoundException("DigitalContent", id);
         }
+        cache.invalidate(id);
+        nameIndex.remove(id);
+        suggester.remove(id);
+        availability.clear(id);
+        responseCache.evictItem(id);
+        responseCache.evictPages();
+        catalogVersion.bump(id);
+        return true;
+    }
 
-        return repository.delete(id);
+    @Override
+    public List<DigitalContent> searchByName(String keyword, Integer limit) {
+        if (keyword == null || keyword.trim().isEmpty()) {
+            throw new InvalidInputException("Search keyword cannot be empty");
+        }
+
+        int maxResults = PageCursor.checkLimit(limit);
+        // Name substring matches, in id order, either way: the index finds the ids and the rows
+        // come from the content cache; the database is only searched while the index is not
+        // built (startup, or the database was down at the time)
+        if (nameIndex.isReady()) {
+            return cache.getByIds(nameIndex.search(keyword.trim(), maxResults));
+        }
+        return repository.searchNames(keyword.trim(), maxResults);
     }
 
     @Override
-    public List<DigitalContent> searchByName(String keyword) {
+    public List<DigitalContent> searchFullText(String keyword, Integer limit) {
         if (keyword == null || keyword.trim().isEmpty()) {
             throw new InvalidInputException("Search keyword cannot be empty");
         }
 
-        return repository.getAll().stream()
-                .filter(content -> content.getName().toLowerCase()
-                        .contains(keyword.toLowerCase()))
-                .collect(Collectors.toList());
+        return repository.search(keyword.trim(), PageCursor.checkLimit(limit));
+    }
+
+    @Override
+    public List<String> suggestNames(String prefix, Integer limit) {
+        if (prefix == null || prefix.isEmpty()) {
+            throw new InvalidInputException("Prefix cannot be empty");
+        }
+
+        int maxResults = limit == null ? suggester.getTopK() : limit;
+        if (maxResults < 1 || maxResults > suggester.getTopK()) {
+            throw new InvalidInputException("Limit must be between 1 and " + suggester.getTopK());
+        }
+
+        if (suggester.isReady()) {
+            return suggester.suggest(prefix, maxResults);
+        }
+        return repository.suggest(prefix, maxResults);
+    }
+
+    @Override
+    public void streamAvailableContent(Consumer<DigitalContent> action) {
+        repository.streamAvailable(action);
+    }
+
+    @Override
+    public PageDTO<DigitalContent> getAvailablePage(String after, Integer limit) {
+        int pageSize = PageCursor.checkLimit(limit);
+        int afterId = PageCursor.decode(after);
+
+        if (!availability.isReady()) {
+            return PageDTO.fromRows(repository.getAvailablePage(afterId, pageSize + 1),
+                    pageSize, DigitalContent::getId);
+        }
+
+        // The bitmap picks the ids; the rows themselves are authoritative, so a bit left
+        // stale by another instance's write drops that row, and the next ids fill its place.
+        // Only a bitmap with no ids left ends the listing.
+        List<DigitalContent> rows = new ArrayList<>(pageSize + 1);
+        int cursor = afterId;
+        while (rows.size() <= pageSize) {
+            int wanted = pageSize + 1 - rows.size();
+            int[] ids = availability.idsAfter(cursor, wanted);
+            for (DigitalContent content : repository.getByIds(ids)) {
+                if (content.isAvailable()) {
+                    rows.add(content);
+                }
+            }
+            if (ids.length < wanted) {
+                break;
+            }
+            cursor = ids[ids.length - 1];
+        }
+        return PageDTO.fromRows(rows, pageSize, DigitalContent::getId);
     }
 
     @Override
-    public List<DigitalContent> getAvailableContent() {
-        return repository.getAll().stream()
-                .filter(DigitalContent::isAvailable)
-                .collect(Collectors.toList());
+    public ImportResultDTO importContent(ContentImportReader reader) {
+        ImportResultDTO result = new ImportResultDTO();
+
+        // Invalid records are counted and skipped; only valid ones reach COPY
+        Iterator<DigitalContent> validContents = new Iterator<>() {
+            private DigitalContent next;
+
+            @Override
+            public boolean hasNext() {
+                while (next == null && reader.hasNext()) {
+                    try {
+                        DigitalContent content = reader.next();
+                        content.validate();
+                        next = content;
+                    } catch (IllegalArgumentException e) {
+                        result.addRejection(reader.getRecordNumber(), e.getMessage());
+                    }
+                }
+                return next != null;
+            }
+
+            @Override
+            public DigitalContent next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                DigitalContent content = next;
+                next = null;
+                return content;
+            }
+        };
+
+        result.setAccepted(repository.copyIn(validContents));
+        // COPY does not hand back the new ids, so pick the rows up with a fresh scan
+        if (result.getAccepted() > 0) {
+            // Plain listings read the table and see the rows now; the rest waits for the rebuild
+            responseCache.evictPages();
+            catalogVersion.bumpAll();
+            // Imports finishing while a refresh is queued share it; one finishing while it runs
+            // queues exactly one more, since its rows may have missed the running scan
+            if (refreshPending.compareAndSet(false, true)) {
+                importRefresher.execute(this::rebuildIndexes);
+            }
+        }
+        return result;
+    }
+
+    @PreDestroy
+    public void stopImportRefresher() {
+        importRefresher.shutdownNow();
+    }
+
+    // Pages answered from the indexes (e.g. /available) may have been cached under the tag
+    // bumped above, so the version moves again once the indexes hold the imported rows
+    private void rebuildIndexes() {
+        refreshPending.set(false);
+        nameIndex.rebuild();
+        suggester.rebuild();
+        availability.rebuild();
+        responseCache.evictPages();
+        catalogVersion.bumpAll();
     }
-}
\ No newline at end of file
+}
@@ -1,30 +1,48 @@
 package kz.aitu.digitalcontent.service;
 
+import kz.aitu.digitalcontent.dto.PageDTO;
 import kz.aitu.digitalcontent.exception.InvalidInputException;
 import kz.aitu.digitalcontent.exception.ResourceNotFoundException;
+import kz.aitu.digitalcontent.exception.ServiceUnavailableException;
+import kz.aitu.digitalcontent.index.ContentSuggester;
 import kz.aitu.digitalcontent.model.Purchase;
-import kz.aitu.digitalcontent.repository.DigitalContentRepository;
+import kz.aitu.digitalcontent.patterns.LoggerService;
 import kz.aitu.digitalcontent.repository.PurchaseRepository;
 import kz.aitu.digitalcontent.repository.UserRepository;
+import kz.aitu.digitalcontent.utils.PageCursor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 
 @Service
 public class PurchaseService {
 
     private final PurchaseRepository purchaseRepository;
     private final UserRepository userRepository;
-    private final DigitalContentRepository contentRepository;
+    private final PurchaseWriteBehindQueue writeBehindQueue;
+    private final ContentSuggester suggester;
+    private final long awaitTimeoutMillis;
+    private final LoggerService logger = LoggerService.getInstance();
 
     @Autowired
     public PurchaseService(PurchaseRepository purchaseRepository,
                            UserRepository userRepository,
-                           DigitalContentRepository contentRepository) {
+                           PurchaseWriteBehindQueue writeBehindQueue,
+                           ContentSuggester suggester,
+                           @Value("${purchases.write-behind.await-timeout-ms:5000}") long awaitTimeoutMillis) {
         this.purchaseRepository = purchaseRepository;
         this.userRepository = userRepository;
-        this.contentRepository = contentRepository;
+        this.writeBehindQueue = writeBehindQueue;
+        this.suggester = suggester;
+        this.awaitTimeoutMillis = awaitTimeoutMillis;
     }
 
     public Purchase createPurchase(Purchase purchase) {
@@ -34,22 +52,54 @@ public class PurchaseService {
 
         purchase.validate();
 
-        // Validate foreign keys
-        if (!userRepository.exists(purchase.getUserId())) {
-            throw new ResourceNotFoundException("User", purchase.getUserId());
+        // One INSERT (or one row of a group commit); missing user/content surface as
+        // ResourceNotFoundException from the foreign keys
+        Purchase created = writeBehindQueue.isEnabled()
+                ? awaitDurable(writeBehindQueue.submit(purchase))
+                : purchaseRepository.create(purchase);
+        suggester.recordPurchase(created.getContentId());
+        return created;
+    }
+
+    // Fire-and-forget variant: in write-behind mode this returns before the purchase is committed
+    public CompletableFuture<Purchase> submitPurchase(Purchase purchase) {
+        if (purchase == null) {
+            throw new InvalidInputException("Purchase cannot be null");
         }
 
-        if (!contentRepository.exists(purchase.getContentId())) {
-            throw new ResourceNotFoundException("DigitalContent", purchase.getContentId());
+        purchase.validate();
+
+        if (writeBehindQueue.isEnabled()) {
+            // Nobody may be waiting on the future, so a failed insert is logged here
+            return writeBehindQueue.submit(purchase).whenComplete((saved, error) -> {
+                if (error == null) {
+                    suggester.recordPurchase(saved.getContentId());
+                } else {
+                    logger.error(() -> "Queued purchase of content " + purchase.getContentId() +
+                            " by user " + purchase.getUserId() + " failed: " + error.getMessage());
+                }
+            });
         }
 
-        return purchaseRepository.create(purchase);
+        Purchase created = purchaseRepository.create(purchase);
+        suggester.recordPurchase(created.getContentId());
+        return CompletableFuture.completedFuture(created);
     }
 
     public List<Purchase> getAllPurchases() {
         return purchaseRepository.getAll();
     }
 
+    public void streamAllPurchases(Consumer<Purchase> action) {
+        purchaseRepository.streamAll(action);
+    }
+
+    public PageDTO<Purchase> getPurchasePage(String after, Integer limit) {
+        int pageSize = PageCursor.checkLimit(limit);
+        List<Purchase> rows = purchaseRepository.getPage(PageCursor.decode(after), pageSize + 1);
+        return PageDTO.fromRows(rows, pageSize, Purchase::getPurchaseId);
+    }
+
     public Purchase getPurchaseById(int id) {
         return purchaseRepository.getById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Purchase", id));
@@ -62,11 +112,41 @@ public class PurchaseService {
         return purchaseRepository.findByUserId(userId);
     }
 
-    public boolean deletePurchase(int id) {
-        if (!purchaseRepository.exists(id)) {
-            throw new ResourceNotFoundException("Purchase", id);
+    public PageDTO<Purchase> getPurchasePageByUserId(int userId, String after, Integer limit) {
+        int pageSize = PageCursor.checkLimit(limit);
+        int afterId = PageCursor.decode(after);
+
+        if (!userRepository.exists(userId)) {
+            throw new ResourceNotFoundException("User", userId);
         }
 
-        return purchaseRepository.delete(id);
+        List<Purchase> rows = purchaseRepository.findByUserId(userId, afterId, pageSize + 1);
+        return PageDTO.fromRows(rows, pageSize, Purchase::getPurchaseId);
+    }
+
+    public boolean deletePurchase(int id) {
+        int contentId = purchaseRepository.deleteReturningContentId(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Purchase", id));
+        suggester.recordPurchaseRemoved(contentId);
+        return true;
+    }
+
+    // Waits at most await-timeout-ms for the commit. On timeout the purchase stays queued and
+    // may still be saved, so the caller gets 503 rather than a thread stuck behind a slow flush.
+    public Purchase awaitDurable(CompletableFuture<Purchase> future) {
+        try {
+            return future.get(awaitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new ServiceUnavailableException("Purchase not committed within " + awaitTimeoutMillis
+                    + " ms; it is still queued and may be saved later");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Interrupted while waiting for the purchase to be saved");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new CompletionException(e.getCause());
+        }
     }
-}
\ No newline at end of file
+}
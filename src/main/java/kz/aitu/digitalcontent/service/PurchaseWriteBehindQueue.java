@@ -0,0 +1,218 @@
+package kz.aitu.digitalcontent.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import kz.aitu.digitalcontent.exception.ServiceUnavailableException;
+import kz.aitu.digitalcontent.model.Purchase;
+import kz.aitu.digitalcontent.patterns.LoggerService;
+import kz.aitu.digitalcontent.repository.PurchaseRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Optional write-behind mode for purchases: requests are queued and a single
+// flusher thread inserts them in multi-row batches, one transaction per batch.
+@Component
+public class PurchaseWriteBehindQueue {
+
+    private static final String INTEGRITY_VIOLATION_CLASS = "23";
+
+    private final PurchaseRepository repository;
+    private final LoggerService logger = LoggerService.getInstance();
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final long offerTimeoutMillis;
+    private final BlockingQueue<PendingPurchase> queue;
+
+    // Submitters share the read lock, so stop() cannot flip running between their check and offer
+    private final ReadWriteLock shutdownLock = new ReentrantReadWriteLock();
+    private volatile boolean running;
+    private Thread flusher;
+
+    @Autowired
+    public PurchaseWriteBehindQueue(PurchaseRepository repository,
+                                    @Value("${purchases.write-behind.enabled:false}") boolean enabled,
+                                    @Value("${purchases.write-behind.queue-capacity:10000}") int queueCapacity,
+                                    @Value("${purchases.write-behind.batch-size:500}") int batchSize,
+                                    @Value("${purchases.write-behind.flush-interval-ms:20}") long flushIntervalMillis,
+                                    @Value("${purchases.write-behind.offer-timeout-ms:100}") long offerTimeoutMillis) {
+        this.repository = repository;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+
+        running = true;
+        flusher = new Thread(this::runFlusher, "purchase-flusher");
+        flusher.start();
+        logger.info("Purchase write-behind enabled (batch {}, every {} ms)", batchSize, flushIntervalMillis);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // The future completes once the purchase is committed, or fails with the insert's error
+    public CompletableFuture<Purchase> submit(Purchase purchase) {
+        PendingPurchase pending = new PendingPurchase(purchase);
+
+        shutdownLock.readLock().lock();
+        try {
+            if (!running) {
+                throw new ServiceUnavailableException("Purchase queue is not accepting new purchases");
+            }
+            // Backpressure: wait briefly for space, then reject instead of growing the queue
+            if (!queue.offer(pending, offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new ServiceUnavailableException("Purchase queue is full, please retry");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Interrupted while queueing purchase");
+        } finally {
+            shutdownLock.readLock().unlock();
+        }
+        return pending.future;
+    }
+
+    public int getQueuedCount() {
+        return queue.size();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (!running) {
+            return;
+        }
+
+        // The flusher keeps going until the queue is empty, then exits. Once the write lock
+        // is held no submit is between its check and its offer, so nothing lands after the drain.
+        shutdownLock.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            shutdownLock.writeLock().unlock();
+        }
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        List<PendingPurchase> leftover = new ArrayList<>();
+        queue.drainTo(leftover);
+        for (PendingPurchase pending : leftover) {
+            pending.future.completeExceptionally(
+                    new ServiceUnavailableException("Purchase queue shut down before the purchase was saved"));
+        }
+        logger.info("Purchase write-behind stopped, {} purchases not flushed", leftover.size());
+    }
+
+    private void runFlusher() {
+        List<PendingPurchase> batch = new ArrayList<>(batchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingPurchase first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                // Group commit: collect until the batch is full or the interval has passed
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingPurchase next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Shutdown is driven by the running flag; just flush what we have
+                queue.drainTo(batch, batchSize - batch.size());
+            }
+
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<PendingPurchase> batch) {
+        List<Purchase> purchases = new ArrayList<>(batch.size());
+        for (PendingPurchase pending : batch) {
+            purchases.add(pending.purchase);
+        }
+
+        try {
+            repository.createAll(purchases);
+            for (PendingPurchase pending : batch) {
+                pending.future.complete(pending.purchase);
+            }
+        } catch (RuntimeException batchError) {
+            // Any other failure (connection lost, timeout) would hit every row again, so the
+            // whole batch fails instead of turning into batch.size() round trips
+            if (!isIntegrityViolation(batchError)) {
+                for (PendingPurchase pending : batch) {
+                    pending.future.completeExceptionally(batchError);
+                }
+                return;
+            }
+
+            // One bad row fails the whole transaction; retry one by one so only it is rejected
+            for (PendingPurchase pending : batch) {
+                try {
+                    pending.future.complete(repository.create(pending.purchase));
+                } catch (RuntimeException e) {
+                    pending.future.completeExceptionally(e);
+                }
+            }
+        }
+    }
+
+    // SQLState class 23: a constraint (foreign key, unique, check) rejected a row
+    private static boolean isIntegrityViolation(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException) {
+                for (SQLException current = (SQLException) cause; current != null; current = current.getNextException()) {
+                    String state = current.getSQLState();
+                    if (state != null && state.startsWith(INTEGRITY_VIOLATION_CLASS)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private static class PendingPurchase {
+        private final Purchase purchase;
+        private final CompletableFuture<Purchase> future = new CompletableFuture<>();
+
+        PendingPurchase(Purchase purchase) {
+            this.purchase = purchase;
+        }
+    }
+}
@@ -1,23 +1,29 @@
 package kz.aitu.digitalcontent.service;
 
+import kz.aitu.digitalcontent.dto.PageDTO;
 import kz.aitu.digitalcontent.exception.DuplicateResourceException;
 import kz.aitu.digitalcontent.exception.InvalidInputException;
 import kz.aitu.digitalcontent.exception.ResourceNotFoundException;
+import kz.aitu.digitalcontent.index.EmailFilter;
 import kz.aitu.digitalcontent.model.User;
 import kz.aitu.digitalcontent.repository.UserRepository;
+import kz.aitu.digitalcontent.utils.PageCursor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 @Service
 public class UserService {
 
     private final UserRepository repository;
+    private final EmailFilter emailFilter;
 
     @Autowired
-    public UserService(UserRepository repository) {
+    public UserService(UserRepository repository, EmailFilter emailFilter) {
         this.repository = repository;
+        this.emailFilter = emailFilter;
     }
 
     public User createUser(User user) {
@@ -27,36 +33,51 @@ public class UserService {
 
         user.validate();
 
-        if (repository.findByEmail(user.getEmail()).isPresent()) {
+        // Most emails are new: only ask the database when the filter says the email may be taken
+        if (emailFilter.mightExist(user.getEmail()) && repository.findByEmail(user.getEmail()).isPresent()) {
             throw new DuplicateResourceException("User", user.getEmail());
         }
 
-        return repository.create(user);
+        User created = repository.create(user);
+        emailFilter.add(created.getEmail());
+        return created;
     }
 
     public List<User> getAllUsers() {
         return repository.getAll();
     }
 
+    public void streamAllUsers(Consumer<User> action) {
+        repository.streamAll(action);
+    }
+
+    public PageDTO<User> getUserPage(String after, Integer limit) {
+        int pageSize = PageCursor.checkLimit(limit);
+        List<User> rows = repository.getPage(PageCursor.decode(after), pageSize + 1);
+        return PageDTO.fromRows(rows, pageSize, User::getId);
+    }
+
     public User getUserById(int id) {
         return repository.getById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User", id));
     }
 
     public User updateUser(int id, User user) {
-        if (!repository.exists(id)) {
-            throw new ResourceNotFoundException("User", id);
-        }
-
         user.validate();
-        return repository.update(id, user);
+
+        User updated = repository.update(id, user)
+                .orElseThrow(() -> new ResourceNotFoundException("User", id));
+        // The old email may be gone now; the new one is definitely taken
+        emailFilter.markStale();
+        emailFilter.add(updated.getEmail());
+        return updated;
     }
 
     public boolean deleteUser(int id) {
-        if (!repository.exists(id)) {
+        if (!repository.delete(id)) {
             throw new ResourceNotFoundException("User", id);
         }
-
-        return repository.delete(id);
+        emailFilter.markStale();
+        return true;
     }
 }
\ No newline at end of file
@@ -1,14 +1,32 @@
 package kz.aitu.digitalcontent.service.interfaces;
 
+import kz.aitu.digitalcontent.dto.ContentField;
+import kz.aitu.digitalcontent.dto.ImportResultDTO;
+import kz.aitu.digitalcontent.dto.PageDTO;
 import kz.aitu.digitalcontent.model.DigitalContent;
+import kz.aitu.digitalcontent.utils.ContentImportReader;
+
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public interface DigitalContentService {
     DigitalContent createContent(DigitalContent content);
     List<DigitalContent> getAllContent();
+    void streamAllContent(Consumer<DigitalContent> action);
+    PageDTO<DigitalContent> getContentPage(String after, Integer limit);
+    void streamContentFields(Set<ContentField> fields, boolean availableOnly,
+                             Consumer<Map<String, Object>> action);
+    PageDTO<Map<String, Object>> getContentFieldsPage(Set<ContentField> fields, boolean availableOnly,
+                                                      String after, Integer limit);
     DigitalContent getContentById(int id);
     DigitalContent updateContent(int id, DigitalContent content);
     boolean deleteContent(int id);
-    List<DigitalContent> searchByName(String keyword);
-    List<DigitalContent> getAvailableContent();
+    List<DigitalContent> searchByName(String keyword, Integer limit);
+    List<DigitalContent> searchFullText(String keyword, Integer limit);
+    List<String> suggestNames(String prefix, Integer limit);
+    void streamAvailableContent(Consumer<DigitalContent> action);
+    PageDTO<DigitalContent> getAvailablePage(String after, Integer limit);
+    ImportResultDTO importContent(ContentImportReader reader);
 }
\ No newline at end of file
@@ -0,0 +1,270 @@
+package kz.aitu.digitalcontent.utils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import kz.aitu.digitalcontent.model.Creator;
+import kz.aitu.digitalcontent.model.DigitalContent;
+import kz.aitu.digitalcontent.patterns.DigitalContentFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+// Reads a CSV or NDJSON catalog dump one record at a time. next() throws
+// IllegalArgumentException for a bad record; that record is consumed anyway.
+public class ContentImportReader implements Iterator<DigitalContent> {
+
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    // A stray quote would otherwise pull the rest of the file into one record
+    static final int MAX_RECORD_CHARS = 1 << 20;
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final BufferedReader reader;
+    private final Format format;
+    private final int maxRecordChars;
+    private List<String> csvHeader;
+    private String pendingRecord;
+    private boolean pendingOversized;
+    private int recordNumber;
+
+    public ContentImportReader(InputStream in, Format format) {
+        this(in, format, MAX_RECORD_CHARS);
+    }
+
+    ContentImportReader(InputStream in, Format format, int maxRecordChars) {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        this.format = format;
+        this.maxRecordChars = maxRecordChars;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (pendingRecord == null && !pendingOversized) {
+            pendingRecord = readRecord();
+        }
+        return pendingRecord != null || pendingOversized;
+    }
+
+    @Override
+    public DigitalContent next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        String record = pendingRecord;
+        pendingRecord = null;
+        recordNumber++;
+        if (pendingOversized) {
+            pendingOversized = false;
+            throw new IllegalArgumentException("Record is longer than " + maxRecordChars
+                    + " characters (unbalanced quote?)");
+        }
+
+        Map<String, String> fields = format == Format.CSV ? parseCsvRecord(record) : parseJsonRecord(record);
+        return toContent(fields);
+    }
+
+    public int getRecordNumber() {
+        return recordNumber;
+    }
+
+    private String readRecord() {
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                if (format == Format.NDJSON) {
+                    return line;
+                }
+
+                // A quoted CSV field may span several physical lines. Only the new line is
+                // scanned for quotes each time, and the record stops growing at the cap; reading
+                // then resumes with the next line as a fresh record.
+                StringBuilder record = new StringBuilder(line);
+                boolean openQuote = quoteOpenAfter(line, false);
+                while (openQuote && record.length() <= maxRecordChars) {
+                    String continuation = reader.readLine();
+                    if (continuation == null) {
+                        break;
+                    }
+                    record.append('\n').append(continuation);
+                    openQuote = quoteOpenAfter(continuation, openQuote);
+                }
+                if (record.length() > maxRecordChars) {
+                    pendingOversized = true;
+                    return null;
+                }
+
+                if (csvHeader == null) {
+                    csvHeader = new ArrayList<>();
+                    for (String column : splitCsv(record.toString())) {
+                        csvHeader.add(normalizeKey(column));
+                    }
+                    continue;
+                }
+                return record.toString();
+            }
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read import stream", e);
+        }
+    }
+
+    private Map<String, String> parseCsvRecord(String record) {
+        List<String> values = splitCsv(record);
+        if (values.size() != csvHeader.size()) {
+            throw new IllegalArgumentException(String.format(
+                    "Expected %d columns but found %d", csvHeader.size(), values.size()));
+        }
+
+        Map<String, String> fields = new HashMap<>();
+        for (int i = 0; i < values.size(); i++) {
+            fields.put(csvHeader.get(i), values.get(i));
+        }
+        return fields;
+    }
+
+    private Map<String, String> parseJsonRecord(String record) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(record);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage());
+        }
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException("Each line must be a JSON object");
+        }
+
+        Map<String, String> fields = new HashMap<>();
+        node.fields().forEachRemaining(entry -> {
+            JsonNode value = entry.getValue();
+            fields.put(normalizeKey(entry.getKey()), value.isNull() ? null : value.asText());
+        });
+        return fields;
+    }
+
+    private DigitalContent toContent(Map<String, String> fields) {
+        String contentType = text(fields, "contenttype");
+        if (contentType == null) {
+            throw new IllegalArgumentException("Content type is required");
+        }
+
+        String name = text(fields, "name");
+        int releaseYear = intValue(fields, "releaseyear", 0);
+        boolean available = booleanValue(fields, "available", false);
+        String description = text(fields, "description");
+        Creator creator = new Creator(text(fields, "creatorcountry"), text(fields, "creatorbio"));
+
+        switch (contentType.toUpperCase(Locale.ROOT)) {
+            case "MOVIE":
+                return DigitalContentFactory.createMovie(0, name, releaseYear, available,
+                        creator, description,
+                        booleanValue(fields, "rentable", false),
+                        intValue(fields, "durationminutes", 0));
+
+            case "MUSIC_ALBUM":
+            case "ALBUM":
+                return DigitalContentFactory.createMusicAlbum(0, name, releaseYear, available,
+                        creator, description, intValue(fields, "trackcount", 0));
+
+            default:
+                return DigitalContentFactory.createContent(contentType, 0, name, releaseYear,
+                        available, creator, description);
+        }
+    }
+
+    private String text(Map<String, String> fields, String key) {
+        String value = fields.get(key);
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    private int intValue(Map<String, String> fields, String key, int defaultValue) {
+        String value = text(fields, key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Field '" + key + "' must be a number: " + value);
+        }
+    }
+
+    private boolean booleanValue(Map<String, String> fields, String key, boolean defaultValue) {
+        String value = text(fields, key);
+        if (value == null) {
+            return defaultValue;
+        }
+        if (value.equalsIgnoreCase("true")) {
+            return true;
+        }
+        if (value.equalsIgnoreCase("false")) {
+            return false;
+        }
+        throw new IllegalArgumentException("Field '" + key + "' must be true or false: " + value);
+    }
+
+    // Accepts both DTO names (releaseYear) and column names (release_year)
+    private static String normalizeKey(String key) {
+        return key.trim().replace("_", "").toLowerCase(Locale.ROOT);
+    }
+
+    // Quote state after the line; an escaped "" flips it twice, so it needs no special case
+    private static boolean quoteOpenAfter(String line, boolean open) {
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) == '"') {
+                open = !open;
+            }
+        }
+        return open;
+    }
+
+    private static List<String> splitCsv(String record) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean inQuotes = false;
+
+        for (int i = 0; i < record.length(); i++) {
+            char c = record.charAt(i);
+
+            if (inQuotes) {
+                if (c == '"') {
+                    if (i + 1 < record.length() && record.charAt(i + 1) == '"') {
+                        current.append('"');
+                        i++;
+                    } else {
+                        inQuotes = false;
+                    }
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                inQuotes = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+}
@@ -18,7 +18,7 @@ public class DatabaseInitializer {
             insertSampleData();
             logger.info("Database initialized successfully");
         } catch (SQLException e) {
-            logger.error("Database initialization failed: " + e.getMessage());
+            logger.error("Database initialization failed: {}", e.getMessage());
             throw new RuntimeException(e);
         }
     }
@@ -27,9 +27,12 @@ public class DatabaseInitializer {
         try (Connection conn = dbConfig.getConnection();
              Statement stmt = conn.createStatement()) {
 
+            stmt.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+
             stmt.execute("DROP TABLE IF EXISTS purchases CASCADE");
             stmt.execute("DROP TABLE IF EXISTS digital_content CASCADE");
             stmt.execute("DROP TABLE IF EXISTS users CASCADE");
+            stmt.execute("DROP TABLE IF EXISTS catalog_version");
 
             stmt.execute(
                     "CREATE TABLE users (" +
@@ -50,7 +53,29 @@ public class DatabaseInitializer {
                             "creator_bio TEXT, " +
                             "rentable BOOLEAN, " +
                             "duration_minutes INTEGER, " +
-                            "track_count INTEGER)"
+                            "track_count INTEGER, " +
+                            "search_vector TSVECTOR GENERATED ALWAYS AS (" +
+                            "setweight(to_tsvector('english', coalesce(name, '')), 'A') || " +
+                            "setweight(to_tsvector('english', coalesce(description, '')), 'B') || " +
+                            "setweight(to_tsvector('english', coalesce(creator_bio, '')), 'C')) STORED)"
+            );
+
+            // One row, bumped by a statement trigger on every change to digital_content
+            stmt.execute(
+                    "CREATE TABLE catalog_version (" +
+                            "id BOOLEAN PRIMARY KEY DEFAULT TRUE CHECK (id), " +
+                            "version BIGINT NOT NULL)"
+            );
+            stmt.execute("INSERT INTO catalog_version (version) VALUES (0)");
+            stmt.execute(
+                    "CREATE OR REPLACE FUNCTION bump_catalog_version() RETURNS trigger AS $$ " +
+                            "BEGIN UPDATE catalog_version SET version = version + 1; RETURN NULL; END; " +
+                            "$$ LANGUAGE plpgsql"
+            );
+            stmt.execute(
+                    "CREATE TRIGGER trg_content_catalog_version " +
+                            "AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON digital_content " +
+                            "FOR EACH STATEMENT EXECUTE FUNCTION bump_catalog_version()"
             );
 
             stmt.execute(
@@ -60,10 +85,20 @@ public class DatabaseInitializer {
                             "content_id INTEGER NOT NULL, " +
                             "purchase_date DATE NOT NULL, " +
                             "price_paid DECIMAL(10,2) NOT NULL, " +
-                            "FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE, " +
-                            "FOREIGN KEY (content_id) REFERENCES digital_content(id) ON DELETE CASCADE)"
+                            "CONSTRAINT fk_purchases_user FOREIGN KEY (user_id) " +
+                            "REFERENCES users(id) ON DELETE CASCADE, " +
+                            "CONSTRAINT fk_purchases_content FOREIGN KEY (content_id) " +
+                            "REFERENCES digital_content(id) ON DELETE CASCADE)"
             );
 
+            stmt.execute("CREATE INDEX idx_users_email ON users(email)");
+            stmt.execute("CREATE INDEX idx_content_type ON digital_content(content_type)");
+            stmt.execute("CREATE INDEX idx_content_available ON digital_content(id) WHERE available");
+            stmt.execute("CREATE INDEX idx_content_search ON digital_content USING GIN (search_vector)");
+            stmt.execute("CREATE INDEX idx_content_name_trgm ON digital_content USING GIN (name gin_trgm_ops)");
+            stmt.execute("CREATE INDEX idx_purchases_user ON purchases(user_id, purchase_id)");
+            stmt.execute("CREATE INDEX idx_purchases_content ON purchases(content_id)");
+
             logger.info("Tables created successfully");
         }
     }
@@ -0,0 +1,60 @@
+package kz.aitu.digitalcontent.utils;
+
+import kz.aitu.digitalcontent.exception.InvalidInputException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+public class PageCursor {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 1000;
+
+    private static final String PREFIX = "id:";
+
+    public static String encode(int lastId) {
+        byte[] raw = (PREFIX + lastId).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+
+    // Returns the id to continue after; no cursor means the first page
+    public static int decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0;
+        }
+
+        // Plain numeric ids are accepted too, e.g. ?after=120
+        if (cursor.chars().allMatch(Character::isDigit)) {
+            return parseId(cursor);
+        }
+
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidInputException("Invalid page cursor: " + cursor);
+        }
+        if (!raw.startsWith(PREFIX)) {
+            throw new InvalidInputException("Invalid page cursor: " + cursor);
+        }
+        return parseId(raw.substring(PREFIX.length()));
+    }
+
+    public static int checkLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new InvalidInputException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        return limit;
+    }
+
+    private static int parseId(String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new InvalidInputException("Invalid page cursor: " + value);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package kz.aitu.digitalcontent.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+public class PropertiesLoader {
+
+    private static final String APPLICATION_PROPERTIES = "application.properties";
+
+    public static Properties loadApplicationProperties() {
+        Properties properties = new Properties();
+
+        try (InputStream in = PropertiesLoader.class.getClassLoader()
+                .getResourceAsStream(APPLICATION_PROPERTIES)) {
+            if (in != null) {
+                properties.load(in);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read " + APPLICATION_PROPERTIES, e);
+        }
+
+        // System properties win, so -Ddb.url=... works the same as in Spring
+        for (String name : System.getProperties().stringPropertyNames()) {
+            properties.setProperty(name, System.getProperty(name));
+        }
+        return properties;
+    }
+
+    public static int getInt(Properties properties, String key, int defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Property '" + key + "' must be a number: " + value);
+        }
+    }
+
+    public static long getLong(Properties properties, String key, long defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Property '" + key + "' must be a number: " + value);
+        }
+    }
+}
@@ -1,10 +1,14 @@
 -- Digital Content Platform Database Schema
 -- PostgreSQL Database
 
+-- Trigram operators for substring search on content names
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
 -- Drop existing tables
 DROP TABLE IF EXISTS purchases CASCADE;
 DROP TABLE IF EXISTS digital_content CASCADE;
 DROP TABLE IF EXISTS users CASCADE;
+DROP TABLE IF EXISTS catalog_version;
 
 -- ==============================================
 -- Users Table
@@ -34,9 +38,38 @@ CREATE TABLE digital_content (
                                  duration_minutes INTEGER,
 
     -- MusicAlbum-specific fields
-                                 track_count INTEGER
+                                 track_count INTEGER,
+
+    -- Full-text search document, kept up to date by PostgreSQL
+                                 search_vector TSVECTOR GENERATED ALWAYS AS (
+                                     setweight(to_tsvector('english', coalesce(name, '')), 'A') ||
+                                     setweight(to_tsvector('english', coalesce(description, '')), 'B') ||
+                                     setweight(to_tsvector('english', coalesce(creator_bio, '')), 'C')
+                                 ) STORED
 );
 
+-- ==============================================
+-- Catalog Version
+-- Bumped once per statement that changes digital_content, whoever runs it (either app,
+-- another instance, plain SQL). The servlet app polls it for its ETags.
+-- ==============================================
+CREATE TABLE catalog_version (
+                                 id BOOLEAN PRIMARY KEY DEFAULT TRUE CHECK (id),
+                                 version BIGINT NOT NULL
+);
+INSERT INTO catalog_version (version) VALUES (0);
+
+CREATE OR REPLACE FUNCTION bump_catalog_version() RETURNS trigger AS $$
+BEGIN
+    UPDATE catalog_version SET version = version + 1;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_content_catalog_version
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON digital_content
+    FOR EACH STATEMENT EXECUTE FUNCTION bump_catalog_version();
+
 -- ==============================================
 -- Purchases Table
 -- ==============================================
@@ -47,8 +80,8 @@ CREATE TABLE purchases (
                            purchase_date DATE NOT NULL,
                            price_paid DECIMAL(10,2) NOT NULL,
 
-                           FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
-                           FOREIGN KEY (content_id) REFERENCES digital_content(id) ON DELETE CASCADE
+                           CONSTRAINT fk_purchases_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+                           CONSTRAINT fk_purchases_content FOREIGN KEY (content_id) REFERENCES digital_content(id) ON DELETE CASCADE
 );
 
 -- ==============================================
@@ -56,8 +89,12 @@ CREATE TABLE purchases (
 -- ==============================================
 CREATE INDEX idx_users_email ON users(email);
 CREATE INDEX idx_content_type ON digital_content(content_type);
-CREATE INDEX idx_content_available ON digital_content(available);
-CREATE INDEX idx_purchases_user ON purchases(user_id);
+-- Partial index: only available rows, in id order for keyset pages
+CREATE INDEX idx_content_available ON digital_content(id) WHERE available;
+CREATE INDEX idx_content_search ON digital_content USING GIN (search_vector);
+CREATE INDEX idx_content_name_trgm ON digital_content USING GIN (name gin_trgm_ops);
+-- (user_id, purchase_id) serves keyset pages of a user's purchases
+CREATE INDEX idx_purchases_user ON purchases(user_id, purchase_id);
 CREATE INDEX idx_purchases_content ON purchases(content_id);
 
 -- ==============================================
@@ -0,0 +1,64 @@
+package kz.aitu.digitalcontent.index;
+
+import kz.aitu.digitalcontent.model.Creator;
+import kz.aitu.digitalcontent.model.DigitalContent;
+import kz.aitu.digitalcontent.model.Game;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// put/remove/search only; rebuild() needs the database
+class ContentNameIndexTest {
+
+    private ContentNameIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ContentNameIndex(null);
+        index.put(content(3, "Neon Harbor"));
+        index.put(content(1, "Harbor Lights"));
+        index.put(content(2, "Desert Run"));
+        index.put(content(4, "HARBORMASTER"));
+    }
+
+    @Test
+    void findsSubstringsCaseInsensitivelyInIdOrder() {
+        assertArrayEquals(new int[]{1, 3, 4}, index.search("harbor", 10));
+        assertArrayEquals(new int[]{1, 3, 4}, index.search("ARBO", 10));
+        assertArrayEquals(new int[]{2}, index.search("sert r", 10));
+    }
+
+    @Test
+    void gramsFromDifferentPlacesDoNotMatch() {
+        // Every gram of "abcde" is indexed, but no single name contains all of it
+        index.put(content(5, "abcd"));
+        index.put(content(6, "bcde"));
+        assertArrayEquals(new int[0], index.search("abcde", 10));
+        assertArrayEquals(new int[0], index.search("zzz", 10));
+    }
+
+    @Test
+    void shortKeywordsScanEveryName() {
+        assertArrayEquals(new int[]{1, 3, 4}, index.search("ha", 10));
+        assertArrayEquals(new int[]{1, 2, 3, 4}, index.search("r", 10));
+    }
+
+    @Test
+    void stopsAtTheLimit() {
+        assertArrayEquals(new int[]{1, 3}, index.search("harbor", 2));
+    }
+
+    @Test
+    void updatesAndRemovesAreSeenByTheNextSearch() {
+        index.put(content(3, "Neon Skyline"));
+        index.remove(1);
+
+        assertArrayEquals(new int[]{4}, index.search("harbor", 10));
+        assertArrayEquals(new int[]{3}, index.search("skyline", 10));
+    }
+
+    private static DigitalContent content(int id, String name) {
+        return new Game(id, name, 2020, true, new Creator("KZ", "Studio"), "");
+    }
+}
@@ -0,0 +1,122 @@
+package kz.aitu.digitalcontent.index;
+
+import kz.aitu.digitalcontent.model.Creator;
+import kz.aitu.digitalcontent.model.DigitalContent;
+import kz.aitu.digitalcontent.model.Game;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// put/remove/recordPurchase/recordPurchaseRemoved/suggest only; rebuild() needs the database
+class ContentSuggesterTest {
+
+    @Test
+    void ranksByPurchasesThenId() {
+        ContentSuggester suggester = new ContentSuggester(null, null, 3, 0);
+        suggester.put(content(1, "Star Fox"));
+        suggester.put(content(2, "Starfield"));
+        suggester.put(content(3, "Stardew Valley"));
+        suggester.put(content(4, "Star Wars"));
+        suggester.recordPurchase(4);
+        suggester.recordPurchase(4);
+        suggester.recordPurchase(3);
+
+        assertEquals(List.of("Star Wars", "Stardew Valley", "Star Fox"), suggester.suggest("star", 10));
+        assertEquals(List.of("Star Wars"), suggester.suggest("STAR", 1));
+        assertEquals(List.of("Stardew Valley"), suggester.suggest("stard", 10));
+        assertEquals(List.of(), suggester.suggest("zelda", 10));
+    }
+
+    @Test
+    void renamesAndRemovesAreReRanked() {
+        ContentSuggester suggester = new ContentSuggester(null, null, 2, 0);
+        suggester.put(content(1, "Alpha"));
+        suggester.put(content(2, "Alpine"));
+        suggester.put(content(3, "Alps"));
+        suggester.recordPurchase(3);
+
+        assertEquals(List.of("Alps", "Alpha"), suggester.suggest("al", 10));
+
+        suggester.put(content(3, "Beta"));
+        assertEquals(List.of("Alpha", "Alpine"), suggester.suggest("al", 10));
+        assertEquals(List.of("Beta"), suggester.suggest("b", 10));
+
+        suggester.remove(1);
+        assertEquals(List.of("Alpine"), suggester.suggest("al", 10));
+    }
+
+    @Test
+    void removedPurchasesLowerTheRank() {
+        ContentSuggester suggester = new ContentSuggester(null, null, 2, 0);
+        suggester.put(content(1, "Doom"));
+        suggester.put(content(2, "Dota"));
+        suggester.recordPurchase(2);
+        assertEquals(List.of("Dota", "Doom"), suggester.suggest("do", 10));
+
+        suggester.recordPurchaseRemoved(2);
+        assertEquals(List.of("Doom", "Dota"), suggester.suggest("do", 10));
+
+        // Never below zero, even if a removal is reported twice
+        suggester.recordPurchaseRemoved(2);
+        suggester.recordPurchase(1);
+        assertEquals(List.of("Doom", "Dota"), suggester.suggest("do", 10));
+    }
+
+    @Test
+    void matchesABruteForceRankingUnderRandomWrites() {
+        int topK = 5;
+        ContentSuggester suggester = new ContentSuggester(null, null, topK, 0);
+        Map<Integer, String> names = new HashMap<>();
+        Map<Integer, Integer> counts = new HashMap<>();
+        Random random = new Random(11);
+        String[] words = {"ab", "abc", "abd", "b", "ba", "bab", "abcd", "a"};
+
+        for (int i = 0; i < 3_000; i++) {
+            int id = random.nextInt(40);
+            int op = random.nextInt(5);
+            if (op == 0) {
+                suggester.remove(id);
+                names.remove(id);
+                counts.remove(id);
+            } else if (op == 1) {
+                String name = words[random.nextInt(words.length)] + (random.nextBoolean() ? "" : " " + id);
+                suggester.put(content(id, name));
+                names.put(id, name);
+            } else if (op == 2) {
+                suggester.recordPurchaseRemoved(id);
+                counts.computeIfPresent(id, (key, count) -> count > 1 ? count - 1 : null);
+            } else {
+                suggester.recordPurchase(id);
+                counts.merge(id, 1, Integer::sum);
+            }
+        }
+
+        for (String prefix : new String[]{"", "a", "ab", "abc", "b", "ba", "abd 1"}) {
+            assertEquals(expected(names, counts, prefix, topK), suggester.suggest(prefix, topK), prefix);
+        }
+    }
+
+    private static List<String> expected(Map<Integer, String> names, Map<Integer, Integer> counts,
+                                         String prefix, int topK) {
+        List<Integer> ids = new ArrayList<>(names.keySet());
+        return ids.stream()
+                .filter(id -> names.get(id).toLowerCase().startsWith(prefix))
+                .sorted(Comparator.<Integer>comparingInt(id -> -counts.getOrDefault(id, 0))
+                        .thenComparingInt(id -> id))
+                .limit(topK)
+                .map(names::get)
+                .collect(Collectors.toList());
+    }
+
+    private static DigitalContent content(int id, String name) {
+        return new Game(id, name, 2020, true, new Creator("KZ", "Studio"), "");
+    }
+}
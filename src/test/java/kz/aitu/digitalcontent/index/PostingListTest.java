@@ -0,0 +1,69 @@
+package kz.aitu.digitalcontent.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PostingListTest {
+
+    @Test
+    void keepsIdsSortedAndUnique() {
+        PostingList list = new PostingList();
+        for (int id : new int[]{5, 1, 9, 5, 3, 1, 12}) {
+            list.add(id);
+        }
+
+        assertEquals(5, list.size());
+        int[] expected = {1, 3, 5, 9, 12};
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], list.get(i));
+        }
+    }
+
+    @Test
+    void removeDropsOnlyTheGivenId() {
+        PostingList list = new PostingList();
+        list.add(1);
+        list.add(2);
+        list.add(3);
+
+        list.remove(2);
+        list.remove(42);
+
+        assertEquals(2, list.size());
+        assertTrue(list.contains(1));
+        assertFalse(list.contains(2));
+        assertTrue(list.contains(3));
+
+        list.remove(1);
+        list.remove(3);
+        assertTrue(list.isEmpty());
+    }
+
+    @Test
+    void matchesASortedSetUnderRandomWrites() {
+        PostingList list = new PostingList();
+        TreeSet<Integer> expected = new TreeSet<>();
+        Random random = new Random(7);
+
+        for (int i = 0; i < 10_000; i++) {
+            int id = random.nextInt(500);
+            if (random.nextInt(3) == 0) {
+                list.remove(id);
+                expected.remove(id);
+            } else {
+                list.add(id);
+                expected.add(id);
+            }
+        }
+
+        assertEquals(expected.size(), list.size());
+        int index = 0;
+        for (int id : expected) {
+            assertEquals(id, list.get(index++));
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package kz.aitu.digitalcontent.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    private static final long ONE_HOUR = TimeUnit.HOURS.toNanos(1);
+
+    @Test
+    void valuesBelow128AreExact() {
+        for (long value = 0; value < 128; value++) {
+            assertEquals(value, bucketTop(value), "value " + value);
+        }
+    }
+
+    @Test
+    void bucketEdgesAroundThePowersOfTwo() {
+        // 128..255 split into 64 buckets of 2, 256..511 into 64 buckets of 4
+        assertEquals(127, bucketTop(127));
+        assertEquals(129, bucketTop(128));
+        assertEquals(129, bucketTop(129));
+        assertEquals(131, bucketTop(130));
+        assertEquals(255, bucketTop(254));
+        assertEquals(255, bucketTop(255));
+        assertEquals(259, bucketTop(256));
+        assertEquals(259, bucketTop(259));
+        assertEquals(263, bucketTop(260));
+        assertEquals(511, bucketTop(511));
+        assertEquals(519, bucketTop(512));
+    }
+
+    @Test
+    void clampsToOneHourAndZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(Long.MAX_VALUE);
+        histogram.record(ONE_HOUR * 5);
+        histogram.record(-10);
+
+        assertEquals(3, histogram.getCount());
+        assertEquals(ONE_HOUR, histogram.getMaxNanos());
+        assertEquals(0, histogram.getValueAtPercentile(1));
+        assertEquals(ONE_HOUR, histogram.getValueAtPercentile(100));
+        assertEquals(ONE_HOUR * 2 / 3.0, histogram.getMeanNanos(), 1.0);
+    }
+
+    @Test
+    void percentilesMatchASortWithinOneBucket() {
+        Random random = new Random(7);
+        long[] values = new long[20_000];
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < values.length; i++) {
+            // Log-uniform from 1 ns to about 1 s, so every range of buckets is used
+            values[i] = (long) Math.pow(10, random.nextDouble() * 9);
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+
+        for (double percentile : new double[]{0.1, 1, 10, 25, 50, 75, 90, 99, 99.9, 99.99, 100}) {
+            long expected = values[(int) Math.ceil(percentile / 100 * values.length) - 1];
+            long reported = histogram.getValueAtPercentile(percentile);
+            assertTrue(reported >= expected, percentile + ": " + reported + " < " + expected);
+            assertTrue(reported <= expected + expected / 64, percentile + ": " + reported + " too far above " + expected);
+        }
+        assertEquals(values[values.length - 1], histogram.getMaxNanos());
+        assertEquals(values[values.length - 1], histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    void mergeEqualsRecordingEverythingInOne() {
+        LatencyHistogram first = new LatencyHistogram();
+        LatencyHistogram second = new LatencyHistogram();
+        LatencyHistogram all = new LatencyHistogram();
+        Random random = new Random(3);
+        for (int i = 0; i < 5_000; i++) {
+            long value = random.nextInt(1_000_000);
+            (i % 2 == 0 ? first : second).record(value);
+            all.record(value);
+        }
+
+        LatencyHistogram merged = LatencyHistogram.merge(first, second);
+        assertEquals(all.getCount(), merged.getCount());
+        assertEquals(all.getMaxNanos(), merged.getMaxNanos());
+        assertEquals(all.getMeanNanos(), merged.getMeanNanos(), 1e-6);
+        for (double percentile : new double[]{1, 50, 99, 99.9}) {
+            assertEquals(all.getValueAtPercentile(percentile), merged.getValueAtPercentile(percentile));
+        }
+        assertEquals(2_500, first.getCount());
+    }
+
+    // Highest value sharing the bucket of the given one: the lower sample is reported at its
+    // bucket's top because the much larger second sample keeps the max out of the way
+    private static long bucketTop(long value) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(value);
+        histogram.record(ONE_HOUR);
+        return histogram.getValueAtPercentile(50);
+    }
+}
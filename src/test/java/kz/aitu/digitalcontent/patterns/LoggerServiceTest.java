@@ -0,0 +1,98 @@
+package kz.aitu.digitalcontent.patterns;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Private instances writing to a buffer; the shared singleton is never touched
+class LoggerServiceTest {
+
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private final PrintStream out = new PrintStream(bytes, true, StandardCharsets.UTF_8);
+
+    @Test
+    void keepsOrderAcrossManyWrapsOfTheBuffer() {
+        LoggerService logger = new LoggerService(LoggerService.Level.INFO, 4, out);
+        logger.start();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 60; i++) {
+            logger.info("line {}", i);
+            // Stay under the capacity so nothing is dropped, which also makes the writer
+            // park and be woken by the next line dozens of times
+            if (i % 3 == 2) {
+                awaitDrained(logger);
+            }
+        }
+        logger.shutdown();
+        // A writer that missed its wakeups would sit out the 1 s safety park every time
+        assertTrue(System.nanoTime() - start < 5_000_000_000L, "writer was not woken by producers");
+
+        List<String> lines = messages();
+        assertEquals(60, lines.size());
+        for (int i = 0; i < 60; i++) {
+            assertEquals("INFO: line " + i, lines.get(i));
+        }
+        assertEquals(0L, logger.getStats().get("dropped"));
+    }
+
+    @Test
+    void dropsAndCountsWhenFullThenReportsTheDrops() {
+        LoggerService logger = new LoggerService(LoggerService.Level.INFO, 8, out);
+        for (int i = 0; i < 11; i++) {
+            logger.warn("line {}", i);
+        }
+        assertEquals(8L, logger.getStats().get("queued"));
+        assertEquals(3L, logger.getStats().get("dropped"));
+
+        logger.start();
+        logger.shutdown();
+
+        List<String> lines = messages();
+        assertEquals(9, lines.size());
+        assertEquals("WARN: line 0", lines.get(0));
+        assertEquals("WARN: line 7", lines.get(7));
+        assertEquals("WARN: 3 log messages dropped, buffer full", lines.get(8));
+    }
+
+    @Test
+    void shutdownFlushesEverythingQueued() {
+        LoggerService logger = new LoggerService(LoggerService.Level.INFO, 1024, out);
+        logger.start();
+        for (int i = 0; i < 500; i++) {
+            logger.error("line {} of {}", i, 500);
+        }
+        logger.debug("below the threshold");
+        logger.shutdown();
+
+        List<String> lines = messages();
+        assertEquals(500, lines.size());
+        assertEquals("ERROR: line 499 of 500", lines.get(499));
+        assertEquals(500L, logger.getStats().get("written"));
+
+        // With the writer gone, lines are printed directly instead of being lost
+        logger.info("after shutdown");
+        assertEquals("INFO: after shutdown", messages().get(500));
+    }
+
+    private static void awaitDrained(LoggerService logger) {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while ((Long) logger.getStats().get("queued") > 0) {
+            assertTrue(System.nanoTime() < deadline, "writer did not drain the buffer");
+            Thread.onSpinWait();
+        }
+    }
+
+    // Lines without the "[timestamp] " prefix
+    private List<String> messages() {
+        return bytes.toString(StandardCharsets.UTF_8).lines()
+                .map(line -> line.startsWith("[") ? line.substring(line.indexOf("] ") + 2) : line)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,51 @@
+package kz.aitu.digitalcontent.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    private static final int VALUES = 100_000;
+    private static final double TARGET_RATE = 0.01;
+
+    @Test
+    void neverReportsAnAddedValueAsMissing() {
+        BloomFilter filter = BloomFilter.create(VALUES, TARGET_RATE);
+        for (int i = 0; i < VALUES; i++) {
+            filter.add("user" + i + "@example.com");
+        }
+
+        for (int i = 0; i < VALUES; i++) {
+            assertTrue(filter.mightContain("user" + i + "@example.com"), "false negative for user" + i);
+        }
+        assertEquals(VALUES, filter.getInsertions());
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTheTarget() {
+        BloomFilter filter = BloomFilter.create(VALUES, TARGET_RATE);
+        for (int i = 0; i < VALUES; i++) {
+            filter.add("user" + i + "@example.com");
+        }
+
+        int falsePositives = 0;
+        int probes = 200_000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain("other" + i + "@example.org")) {
+                falsePositives++;
+            }
+        }
+
+        double rate = (double) falsePositives / probes;
+        assertTrue(rate < TARGET_RATE * 1.5, "false positive rate " + rate);
+        assertEquals(TARGET_RATE, filter.expectedFalsePositiveRate(), TARGET_RATE * 0.2);
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        BloomFilter filter = BloomFilter.create(1_000, TARGET_RATE);
+        assertFalse(filter.mightContain("anyone@example.com"));
+        assertFalse(filter.mightContain(""));
+    }
+}
@@ -0,0 +1,85 @@
+package kz.aitu.digitalcontent.utils;
+
+import kz.aitu.digitalcontent.model.DigitalContent;
+import kz.aitu.digitalcontent.model.MusicAlbum;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentImportReaderTest {
+
+    private static final String HEADER = "content_type,name,release_year,available,description\n";
+
+    @Test
+    void readsQuotedFieldsSpanningSeveralLines() {
+        ContentImportReader reader = csv(HEADER
+                + "GAME,\"Neon, Harbor\",2020,true,\"Line one\n"
+                + "line \"\"two\"\"\n"
+                + "line three\"\n"
+                + "GAME,Desert Run,2019,false,plain\n");
+
+        DigitalContent first = reader.next();
+        assertEquals("Neon, Harbor", first.getName());
+        assertEquals("Line one\nline \"two\"\nline three", first.getDescription());
+        assertTrue(first.isAvailable());
+
+        DigitalContent second = reader.next();
+        assertEquals("Desert Run", second.getName());
+        assertEquals(2, reader.getRecordNumber());
+        assertFalse(reader.hasNext());
+    }
+
+    @Test
+    void strayQuoteRejectsOneCappedRecordAndReadingGoesOn() {
+        ContentImportReader reader = new ContentImportReader(stream(HEADER
+                + "GAME,\"Broken name,2020,true,this quote never closes\n"
+                + "GAME,Swallowed,2021,true,pulled into the broken record\n"
+                + "GAME,Swallowed Too,2021,true,still inside the broken record\n"
+                + "GAME,Kept,2022,true,after the cap\n"
+                + "GAME,Also Kept,2023,false,fine\n"), ContentImportReader.Format.CSV, 120);
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, reader::next);
+        assertTrue(error.getMessage().contains("longer than 120"), error.getMessage());
+        assertEquals(1, reader.getRecordNumber());
+
+        assertEquals("Kept", reader.next().getName());
+        assertEquals("Also Kept", reader.next().getName());
+        assertFalse(reader.hasNext());
+    }
+
+    @Test
+    void badRecordIsConsumedAndCounted() {
+        ContentImportReader reader = csv(HEADER
+                + "GAME,Too,Many,Columns,Here,Now\n"
+                + "GAME,Fine,2020,true,ok\n");
+
+        assertThrows(IllegalArgumentException.class, reader::next);
+        assertEquals("Fine", reader.next().getName());
+        assertEquals(2, reader.getRecordNumber());
+    }
+
+    @Test
+    void readsNdjson() {
+        ContentImportReader reader = new ContentImportReader(stream(
+                "{\"contentType\":\"MUSIC_ALBUM\",\"name\":\"Tides\",\"releaseYear\":2018,\"trackCount\":12}\n"
+                + "\n"
+                + "not json\n"), ContentImportReader.Format.NDJSON);
+
+        DigitalContent album = reader.next();
+        assertInstanceOf(MusicAlbum.class, album);
+        assertEquals(12, ((MusicAlbum) album).getCountTracks());
+        assertThrows(IllegalArgumentException.class, reader::next);
+        assertFalse(reader.hasNext());
+    }
+
+    private static ContentImportReader csv(String text) {
+        return new ContentImportReader(stream(text), ContentImportReader.Format.CSV);
+    }
+
+    private static ByteArrayInputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
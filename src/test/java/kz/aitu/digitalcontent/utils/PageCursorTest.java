@@ -0,0 +1,48 @@
+package kz.aitu.digitalcontent.utils;
+
+import kz.aitu.digitalcontent.exception.InvalidInputException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageCursorTest {
+
+    @Test
+    void decodesWhatItEncodes() {
+        for (int id : new int[]{0, 1, 120, Integer.MAX_VALUE}) {
+            assertEquals(id, PageCursor.decode(PageCursor.encode(id)));
+        }
+    }
+
+    @Test
+    void encodedCursorIsUrlSafe() {
+        assertTrue(PageCursor.encode(123456789).matches("[A-Za-z0-9_-]+"));
+    }
+
+    @Test
+    void missingCursorMeansTheFirstPage() {
+        assertEquals(0, PageCursor.decode(null));
+        assertEquals(0, PageCursor.decode(""));
+        assertEquals(0, PageCursor.decode("  "));
+    }
+
+    @Test
+    void acceptsPlainNumericIds() {
+        assertEquals(120, PageCursor.decode("120"));
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        assertThrows(InvalidInputException.class, () -> PageCursor.decode("not a cursor!"));
+        assertThrows(InvalidInputException.class, () -> PageCursor.decode("Zm9vOjEy")); // "foo:12"
+        assertThrows(InvalidInputException.class, () -> PageCursor.decode("99999999999"));
+    }
+
+    @Test
+    void checksTheLimit() {
+        assertEquals(PageCursor.DEFAULT_LIMIT, PageCursor.checkLimit(null));
+        assertEquals(PageCursor.MAX_LIMIT, PageCursor.checkLimit(PageCursor.MAX_LIMIT));
+        assertThrows(InvalidInputException.class, () -> PageCursor.checkLimit(0));
+        assertThrows(InvalidInputException.class, () -> PageCursor.checkLimit(PageCursor.MAX_LIMIT + 1));
+    }
+}